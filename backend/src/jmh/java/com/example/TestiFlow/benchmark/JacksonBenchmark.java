@@ -0,0 +1,65 @@
+package com.example.TestiFlow.benchmark;
+
+import com.example.TestiFlow.dto.ReviewDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing review lists the size of embed payloads and unpaged listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ReviewDto> reviews;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the mapper Spring Boot configures (java.time support, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        reviews = new ArrayList<>(size);
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30Z");
+        for (int i = 0; i < size; i++) {
+            ReviewDto dto = new ReviewDto();
+            dto.setId(String.format("6650f1c2a4b5c6d7e8f9%04x", i));
+            dto.setSpaceId("6650f1c2a4b5c6d7e8f90123");
+            dto.setAuthorName("Reviewer " + i);
+            dto.setAuthorEmail("reviewer" + i + "@example.com");
+            dto.setRating(1 + i % 5);
+            dto.setText("Testimonial number " + i + ". The onboarding was smooth and support answered within the hour.");
+            dto.setLiked(i % 3 == 0);
+            dto.setCreatedAt(createdAt.plusSeconds(i));
+            reviews.add(dto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+}
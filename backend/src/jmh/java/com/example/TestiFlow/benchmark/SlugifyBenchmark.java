@@ -0,0 +1,49 @@
+package com.example.TestiFlow.benchmark;
+
+import com.github.slugify.Slugify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slug generation as done by SpaceService.createSpace, with the shared instance it keeps
+ * and, for comparison, building a new Slugify per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlugifyBenchmark {
+
+    @Param({"Acme Feedback", "Café Crème & Co. — Kundenstimmen 2024", "日本語のスペース"})
+    private String name;
+
+    private Slugify slugify;
+
+    @Setup
+    public void setUp() {
+        slugify = Slugify.builder().build();
+    }
+
+    @Benchmark
+    public String sharedInstance() {
+        return slugify.slugify(name);
+    }
+
+    @Benchmark
+    public String newInstancePerCall() {
+        return Slugify.builder().build().slugify(name);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.TestiFlow.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification as done on login and on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+    private String[] alternatingTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString("benchmark-secret-benchmark-secret-0123456789".getBytes());
+        jwtUtil = newJwtUtil(secret, 10_000);
+        // Room for one token only: alternating between two tokens makes every call a miss
+        uncachedJwtUtil = newJwtUtil(secret, 1);
+
+        token = jwtUtil.generateToken("owner@example.com");
+        alternatingTokens = new String[]{
+                jwtUtil.generateToken("a@example.com"),
+                jwtUtil.generateToken("b@example.com")
+        };
+    }
+
+    private static JwtUtil newJwtUtil(String secret, int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(util, "verifiedCacheMaxSize", cacheSize);
+        util.init();
+        return util;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("owner@example.com");
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCached() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyUncached() {
+        next ^= 1;
+        return uncachedJwtUtil.verifyToken(alternatingTokens[next]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.ReviewDto;
+import com.example.TestiFlow.dto.SpaceDto;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.Space;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model to DTO mapping, which runs once per review or space in every response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertToDtoBenchmark {
+
+    private ReviewService reviewService;
+    private SpaceService spaceService;
+    private Review review;
+    private Space space;
+
+    @Setup
+    public void setUp() {
+        reviewService = new ReviewService();
+        spaceService = new SpaceService(10, Duration.ofMinutes(5));
+
+        review = new Review("6650f1c2a4b5c6d7e8f90123", "6650f1c2a4b5c6d7e8f90001",
+                "Jane Doe", "jane@example.com", 5, "Great product, the team was quick to help.");
+        review.setId("6650f1c2a4b5c6d7e8f90456");
+        review.setCreatedAt(Instant.parse("2024-05-01T10:15:30Z"));
+
+        space = new Space();
+        space.setId("6650f1c2a4b5c6d7e8f90123");
+        space.setName("Acme Feedback");
+        space.setSlug("acme-feedback");
+        space.setPublicUrl("/t/acme-feedback");
+        space.setRedirectUrl("https://acme.example.com/thanks");
+        space.setOwnerId("6650f1c2a4b5c6d7e8f90001");
+    }
+
+    @Benchmark
+    public ReviewDto reviewToDto() {
+        return reviewService.convertToDto(review);
+    }
+
+    @Benchmark
+    public SpaceDto spaceToDto() {
+        return spaceService.convertToDto(space);
+    }
+}
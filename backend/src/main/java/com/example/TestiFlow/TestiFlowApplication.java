@@ -2,10 +2,10 @@ package com.example.TestiFlow;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.mongodb.config.EnableMongoAuditing; // Import this
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableMongoAuditing // Add this annotation
+@EnableScheduling // Periodic housekeeping, e.g. rate limiter bucket eviction
 public class TestiFlowApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,121 @@
+package com.example.TestiFlow.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-expiring cache of values that are expensive to build, where concurrent misses for
+ * the same key share one load: a cold popular key costs one load no matter how many requests
+ * arrive while it runs. Failed loads are not cached; every waiter gets the exception.
+ *
+ * Unlike ExpiringCache the loader is fixed at construction, and an entry is in the map (as a
+ * pending future) from the moment its load starts.
+ */
+public class CoalescingCache<K, V> {
+
+    private record Entry<V>(V value, long loadedAtNanos) {
+    }
+
+    private final Map<K, CompletableFuture<Entry<V>>> entries = new ConcurrentHashMap<>();
+    private final Function<K, V> loader;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CoalescingCache(int maxSize, Duration ttl, Function<K, V> loader) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.loader = loader;
+    }
+
+    /**
+     * The cached value, or the result of a load that is already running, or a fresh load.
+     * Exceptions thrown by the loader are rethrown as-is.
+     */
+    public V get(K key) {
+        while (true) {
+            CompletableFuture<Entry<V>> existing = entries.get(key);
+            if (existing != null) {
+                if (!existing.isDone()) {
+                    hits.increment(); // Another request is already loading this key
+                    return join(existing).value();
+                }
+                if (!existing.isCompletedExceptionally()) {
+                    Entry<V> entry = existing.join();
+                    if (System.nanoTime() - entry.loadedAtNanos() < ttlNanos) {
+                        hits.increment();
+                        return entry.value();
+                    }
+                }
+                entries.remove(key, existing);
+                continue;
+            }
+
+            CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+            if (entries.putIfAbsent(key, mine) != null) {
+                continue; // Lost the race; wait on the winner instead
+            }
+            misses.increment();
+            if (entries.size() > maxSize) {
+                trim();
+            }
+            try {
+                V value = loader.apply(key);
+                mine.complete(new Entry<>(value, System.nanoTime()));
+                return value;
+            } catch (RuntimeException ex) {
+                entries.remove(key, mine); // Don't cache failures such as an unknown key
+                mine.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    public void evict(K key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public ExpiringCache.Stats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new ExpiringCache.Stats(size(), h, m, evictions.sum(), h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    private void trim() {
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static <V> Entry<V> join(CompletableFuture<Entry<V>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
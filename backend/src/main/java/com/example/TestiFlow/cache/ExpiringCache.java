@@ -0,0 +1,159 @@
+package com.example.TestiFlow.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small bounded, time-expiring in-process cache.
+ * Lookups are a single ConcurrentHashMap read; when the size limit is reached,
+ * expired entries are dropped first and then arbitrary ones until there is room.
+ *
+ * A value loaded by getOrLoad is only stored if no put, evict or clear touched its key while the
+ * load ran, so a load that read the old state can't overwrite a newer write or resurrect an
+ * evicted entry. Keys are tracked by generation counters shared between hash stripes.
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it. Null results are not cached.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            int stripe = stripe(key);
+            long generation = generations.get(stripe);
+            value = loader.apply(key);
+            if (value != null) {
+                putIfUnchanged(key, value, stripe, generation);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        generations.incrementAndGet(stripe(key)); // Loads already running must not overwrite this
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+    }
+
+    public void evict(K key) {
+        generations.incrementAndGet(stripe(key)); // Before the remove, so a load finishing later sees it
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    private void putIfUnchanged(K key, V value, int stripe, long generation) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        // Checked under the key's map lock: a racing evict() either bumped the generation already
+        // or removes this entry after us
+        entries.compute(key, (k, current) -> generations.get(stripe) == generation
+                ? new Entry<>(value, now + ttlNanos)
+                : current);
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(e -> e.isExpired(now));
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public Stats stats() {
+        return new Stats(size(), hitCount(), missCount(), evictionCount(), hitRate());
+    }
+
+    /**
+     * Point-in-time counters, e.g. for logging or a metrics gauge.
+     */
+    public record Stats(int size, long hits, long misses, long evictions, double hitRate) {
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
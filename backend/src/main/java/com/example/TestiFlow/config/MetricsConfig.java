@@ -0,0 +1,106 @@
+package com.example.TestiFlow.config;
+
+import com.example.TestiFlow.cache.ExpiringCache;
+import com.example.TestiFlow.security.PasswordHashingExecutor;
+import com.example.TestiFlow.security.PrincipalCache;
+import com.example.TestiFlow.security.RateLimitFilter;
+import com.example.TestiFlow.service.EmbedService;
+import com.example.TestiFlow.service.EmbedWidgetService;
+import com.example.TestiFlow.service.ReviewFeedHub;
+import com.example.TestiFlow.service.ReviewIngestionQueue;
+import com.example.TestiFlow.service.SpaceService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the in-process counters the components already keep (caches, rate limiter,
+ * ingestion queue, live feed, password hashing pool, Mongo concurrency limit) as gauges and
+ * counters. They are read at scrape time, so nothing here runs on the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(SpaceService spaceService, PrincipalCache principalCache,
+                                    EmbedService embedService, EmbedWidgetService embedWidgetService) {
+        return registry -> {
+            for (String name : spaceService.getCacheStats().keySet()) {
+                cache(registry, name, spaceService, s -> s.getCacheStats().get(name));
+            }
+            cache(registry, "embed", embedService, EmbedService::getCacheStats);
+            cache(registry, "widget", embedWidgetService, EmbedWidgetService::getCacheStats);
+            Gauge.builder("cache.size", principalCache, PrincipalCache::size).tag("cache", "principals").register(registry);
+            counter(registry, "cache.gets", principalCache, PrincipalCache::hitCount, "cache", "principals", "result", "hit");
+            counter(registry, "cache.gets", principalCache, PrincipalCache::missCount, "cache", "principals", "result", "miss");
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            Gauge.builder("testiflow.ratelimit.buckets", rateLimitFilter, f -> f.getStats().buckets()).register(registry);
+            counter(registry, "testiflow.ratelimit.requests", rateLimitFilter, f -> f.getStats().allowed(), "outcome", "allowed");
+            counter(registry, "testiflow.ratelimit.requests", rateLimitFilter, f -> f.getStats().rejected(), "outcome", "rejected");
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestionMetrics(ReviewIngestionQueue ingestionQueue) {
+        return registry -> {
+            Gauge.builder("testiflow.ingestion.queue.depth", ingestionQueue, q -> q.getStats().queueDepth()).register(registry);
+            counter(registry, "testiflow.ingestion.reviews", ingestionQueue, q -> q.getStats().accepted(), "outcome", "accepted");
+            counter(registry, "testiflow.ingestion.reviews", ingestionQueue, q -> q.getStats().rejected(), "outcome", "rejected");
+            counter(registry, "testiflow.ingestion.reviews", ingestionQueue, q -> q.getStats().written(), "outcome", "written");
+            counter(registry, "testiflow.ingestion.reviews", ingestionQueue, q -> q.getStats().failed(), "outcome", "failed");
+            counter(registry, "testiflow.ingestion.flushes", ingestionQueue, q -> q.getStats().flushes());
+        };
+    }
+
+    @Bean
+    public MeterBinder feedMetrics(ReviewFeedHub feedHub) {
+        return registry -> {
+            Gauge.builder("testiflow.feed.subscribers", feedHub, h -> h.getStats().subscribers()).register(registry);
+            Gauge.builder("testiflow.feed.spaces", feedHub, h -> h.getStats().spaces()).register(registry);
+            counter(registry, "testiflow.feed.published", feedHub, h -> h.getStats().published());
+            counter(registry, "testiflow.feed.slow.disconnects", feedHub, h -> h.getStats().slowDisconnects());
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingExecutor hashingExecutor) {
+        return registry -> {
+            Gauge.builder("testiflow.auth.hashing.threads", hashingExecutor, e -> e.getStats().threads()).register(registry);
+            Gauge.builder("testiflow.auth.hashing.active", hashingExecutor, e -> e.getStats().active()).register(registry);
+            Gauge.builder("testiflow.auth.hashing.queued", hashingExecutor, e -> e.getStats().queued()).register(registry);
+            counter(registry, "testiflow.auth.hashing.tasks", hashingExecutor, e -> e.getStats().completed(), "outcome", "completed");
+            counter(registry, "testiflow.auth.hashing.tasks", hashingExecutor, e -> e.getStats().rejected(), "outcome", "rejected");
+        };
+    }
+
+    @Bean
+    public MeterBinder mongoLimiterMetrics(MongoConcurrencyLimiter limiter) {
+        return registry -> {
+            Gauge.builder("testiflow.mongo.operations.inflight", limiter, MongoConcurrencyLimiter::getInFlight).register(registry);
+            Gauge.builder("testiflow.mongo.operations.queued", limiter, MongoConcurrencyLimiter::getQueued).register(registry);
+            Gauge.builder("testiflow.mongo.operations.max", limiter, MongoConcurrencyLimiter::getMaxOperations).register(registry);
+        };
+    }
+
+    private static <T> void cache(MeterRegistry registry, String name, T source, Function<T, ExpiringCache.Stats> stats) {
+        Gauge.builder("cache.size", source, s -> stats.apply(s).size()).tag("cache", name).register(registry);
+        counter(registry, "cache.gets", source, s -> stats.apply(s).hits(), "cache", name, "result", "hit");
+        counter(registry, "cache.gets", source, s -> stats.apply(s).misses(), "cache", name, "result", "miss");
+        counter(registry, "cache.evictions", source, s -> stats.apply(s).evictions(), "cache", name);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> count, String... tags) {
+        FunctionCounter.builder(name, source, count).tags(tags).register(registry);
+    }
+}
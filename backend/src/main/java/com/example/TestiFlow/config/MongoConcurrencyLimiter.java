@@ -0,0 +1,79 @@
+package com.example.TestiFlow.config;
+
+import com.example.TestiFlow.exception.ServiceBusyException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many repository calls can be talking to Mongo at once.
+ *
+ * With virtual threads there is no request-thread pool left to act as a limit, so without this
+ * every concurrent request would simply pile up waiting for a pooled connection. Calls beyond
+ * max-operations wait up to acquire-timeout for a permit and are then shed with 503 instead.
+ *
+ * The limit wraps every Spring Data repository (including the custom Mongo fragments, which are
+ * only reached through them), so MongoTemplate itself stays unwrapped and one call holds one permit.
+ */
+@Component
+public class MongoConcurrencyLimiter extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final int maxOperations;
+
+    public MongoConcurrencyLimiter(@Value("${testiflow.mongo.max-concurrent-operations:100}") int maxOperations,
+                                   @Value("${testiflow.mongo.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.maxOperations = maxOperations;
+        this.permits = new Semaphore(maxOperations, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        ClassFilter repositories = new RootClassFilter(Repository.class);
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(repositories), new Limiter());
+        setBeforeExistingAdvisors(true);
+    }
+
+    private final class Limiter implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServiceBusyException("Interrupted while waiting for the database", 1);
+            }
+            if (!acquired) {
+                throw new ServiceBusyException("Database is busy, please retry shortly", 1);
+            }
+            try {
+                return invocation.proceed();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public int getMaxOperations() {
+        return maxOperations;
+    }
+
+    public int getInFlight() {
+        return maxOperations - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+}
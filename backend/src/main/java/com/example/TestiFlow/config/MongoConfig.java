@@ -0,0 +1,30 @@
+package com.example.TestiFlow.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+import java.time.Duration;
+
+/**
+ * Mongo auditing (fills in @CreatedDate) and the slow-query log. Off under the inmemory profile,
+ * where there is no Mongo mapping context and the in-memory repositories set createdAt themselves.
+ */
+@Configuration
+@Profile("!inmemory")
+@EnableMongoAuditing
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryLogging(
+            @Value("${testiflow.mongo.slow-query-threshold:100ms}") Duration threshold) {
+        return settings -> {
+            if (!threshold.isZero() && !threshold.isNegative()) {
+                settings.addCommandListener(new SlowQueryLogger(threshold));
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.TestiFlow.config;
+
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import com.example.TestiFlow.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Every secondary index the repositories rely on, in one place. Auto-index-creation is off, so
+ * nothing else creates them: they are created here at startup (a no-op when they already exist)
+ * and then checked against what the collections actually have.
+ *
+ * Lookups by an @Id field (spaces/reviews by id, space_stats, slug_counters, deletion jobs by
+ * spaceId) use the built-in _id index and aren't listed. QueryPlanReport explains each
+ * repository query shape against this set.
+ */
+@Component
+@Profile("!inmemory") // Needs a real database
+public class MongoIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexes.class);
+
+    /**
+     * One declared index and the entity whose collection it belongs to.
+     */
+    public record DeclaredIndex(Class<?> entity, IndexDefinition definition) {
+        public String name() {
+            return (String) definition.getIndexOptions().get("name");
+        }
+    }
+
+    public static final List<DeclaredIndex> DECLARED = List.of(
+            // findByEmail / existsByEmail; also what makes sign-up's duplicate check race-free
+            new DeclaredIndex(User.class, new Index().on("email", Sort.Direction.ASC).unique().named("email")),
+
+            // findByOwnerId (the dashboard's space list)
+            new DeclaredIndex(Space.class, new Index().on("ownerId", Sort.Direction.ASC).named("ownerId")),
+            // findBySlug and findSlugsMatching (anchored regex); unique so concurrent creates can't share a slug
+            new DeclaredIndex(Space.class, new Index().on("slug", Sort.Direction.ASC).unique().named("slug")),
+
+            // findBySpaceId, keyset pages (optionally narrowed by rating / date window), export stream,
+            // batch deletes, summaries and stats ($match on spaceId), distinct spaceIds
+            new DeclaredIndex(Review.class, compound("space_created", new Document("spaceId", 1)
+                    .append("createdAt", -1).append("_id", -1).append("rating", 1))),
+            // findBySpaceIdAndLikedTrue (the embed) and keyset pages filtered by liked state
+            new DeclaredIndex(Review.class, compound("space_liked_created", new Document("spaceId", 1)
+                    .append("liked", 1).append("createdAt", -1).append("_id", -1).append("rating", 1))),
+            // Full-text search within one space (the only text index the collection can have); required,
+            // $text queries fail outright without it
+            new DeclaredIndex(Review.class, compound("space_text", new Document("spaceId", 1)
+                    .append("text", "text").append("authorName", "text"))),
+
+            // claimNext: unfinished jobs, oldest first
+            new DeclaredIndex(SpaceDeletionJob.class, compound("status_created", new Document("status", 1)
+                    .append("createdAt", 1)))
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private QueryPlanReport queryPlanReport;
+
+    @Value("${testiflow.mongo.index-report.enabled:false}")
+    private boolean reportEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureOnStartup() {
+        // Off the main thread so an unreachable database (or a long first build) never blocks startup
+        Thread thread = new Thread(() -> {
+            try {
+                ensureAll();
+            } catch (Exception ex) {
+                log.error("Could not check Mongo indexes; search is unavailable until space_text exists", ex);
+                return;
+            }
+            if (reportEnabled) {
+                try {
+                    queryPlanReport.run();
+                } catch (Exception ex) {
+                    log.error("Query plan report failed", ex);
+                }
+            }
+        }, "mongo-index-initializer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates any missing declared index, then logs declared indexes that are still missing and
+     * indexes that exist but aren't declared (candidates for dropping, or for adding here).
+     */
+    public void ensureAll() {
+        int failed = 0;
+        for (DeclaredIndex index : DECLARED) {
+            try {
+                mongoTemplate.indexOps(index.entity()).createIndex(index.definition());
+            } catch (Exception ex) {
+                // Typically an index of the same name with other keys, or duplicates under a unique index
+                failed++;
+                log.error("Could not create index {} on {}", index.name(), collection(index.entity()), ex);
+            }
+        }
+
+        Map<String, Set<String>> declaredByCollection = new LinkedHashMap<>();
+        for (DeclaredIndex index : DECLARED) {
+            declaredByCollection.computeIfAbsent(collection(index.entity()), c -> new HashSet<>()).add(index.name());
+        }
+        int missing = 0;
+        for (Map.Entry<String, Set<String>> entry : declaredByCollection.entrySet()) {
+            Set<String> existing = mongoTemplate.indexOps(entry.getKey()).getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            for (String name : entry.getValue()) {
+                if (!existing.contains(name)) {
+                    missing++;
+                    log.error("Declared index {} is missing on {}", name, entry.getKey());
+                }
+            }
+            for (String name : existing) {
+                if (!name.equals("_id_") && !entry.getValue().contains(name)) {
+                    log.warn("Index {} on {} is not declared in MongoIndexes", name, entry.getKey());
+                }
+            }
+        }
+        if (failed == 0 && missing == 0) {
+            log.info("All {} declared Mongo indexes are in place", DECLARED.size());
+        }
+    }
+
+    private String collection(Class<?> entity) {
+        return mongoTemplate.getCollectionName(entity);
+    }
+
+    private static IndexDefinition compound(String name, Document keys) {
+        return new CompoundIndexDefinition(keys).named(name);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.TestiFlow.config;
+
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import com.example.TestiFlow.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Diagnostic (testiflow.mongo.index-report.enabled): explains every query shape the repositories
+ * send and logs the winning plan of each, flagging collection scans and in-memory sorts.
+ *
+ * The shapes mirror the filters and sorts in the repository interfaces and *RepositoryImpl
+ * classes with sample values; when a query changes there, change its shape here too. Only the
+ * query planner runs (no execution), so this is safe against a production database.
+ */
+@Component
+@Profile("!inmemory") // Needs a real database
+public class QueryPlanReport {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanReport.class);
+
+    /**
+     * A command to explain. sortExpected marks shapes where a blocking SORT is inherent (text score).
+     */
+    record QueryShape(String name, Document command, boolean sortExpected) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public void run() {
+        int flagged = 0;
+        List<QueryShape> shapes = shapes();
+        for (QueryShape shape : shapes) {
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", shape.command()).append("verbosity", "queryPlanner"));
+            Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+            boolean collectionScan = stages.contains("COLLSCAN");
+            boolean blockingSort = !shape.sortExpected() && stages.stream().anyMatch(s -> s.equals("SORT"));
+            if (collectionScan || blockingSort) {
+                flagged++;
+                log.warn("{}: {}{} -> {}", shape.name(), collectionScan ? "COLLSCAN " : "",
+                        blockingSort ? "in-memory SORT " : "", String.join(" <- ", stages));
+            } else {
+                log.info("{}: {}", shape.name(), String.join(" <- ", stages));
+            }
+        }
+        log.info("Query plan report: {} shapes explained, {} flagged", shapes.size(), flagged);
+    }
+
+    // Outermost stage first; an index scan is shown with its index name, e.g. IXSCAN(space_created)
+    private static void collectStages(Document plan, List<String> stages) {
+        if (plan == null) {
+            return;
+        }
+        if (plan.containsKey("queryPlan")) {
+            collectStages(plan.get("queryPlan", Document.class), stages); // Slot-based engine wraps the classic tree
+            return;
+        }
+        String stage = plan.getString("stage");
+        if (stage != null) {
+            String index = plan.getString("indexName");
+            stages.add(index == null ? stage : stage + "(" + index + ")");
+        }
+        for (String child : List.of("inputStage", "outerStage", "innerStage")) {
+            collectStages(plan.get(child, Document.class), stages);
+        }
+        if (plan.get("inputStages") instanceof List<?> children) {
+            for (Object child : children) {
+                collectStages((Document) child, stages);
+            }
+        }
+    }
+
+    private List<QueryShape> shapes() {
+        String users = mongoTemplate.getCollectionName(User.class);
+        String spaces = mongoTemplate.getCollectionName(Space.class);
+        String reviews = mongoTemplate.getCollectionName(Review.class);
+        String jobs = mongoTemplate.getCollectionName(SpaceDeletionJob.class);
+
+        ObjectId id = new ObjectId();
+        String ownerId = new ObjectId().toHexString();
+        String spaceId = new ObjectId().toHexString();
+        Date now = new Date();
+        Date weekAgo = new Date(now.getTime() - 7L * 24 * 60 * 60 * 1000);
+        Document newestFirst = new Document("createdAt", -1).append("_id", -1);
+        Document oldestFirst = new Document("createdAt", 1).append("_id", 1);
+
+        return List.of(
+                find("UserRepository.findByEmail", users, new Document("email", "someone@example.com"), null, 1),
+
+                find("SpaceRepository.findByOwnerId", spaces, new Document("ownerId", ownerId), null, 0),
+                find("SpaceRepository.findBySlug", spaces, new Document("slug", "feedback"), null, 1),
+                find("SpaceRepository.findByIdAndOwnerId", spaces, new Document("_id", id).append("ownerId", ownerId), null, 1),
+                find("SpaceRepository.findSlugsMatching", spaces,
+                        new Document("slug", new Document("$regex", "^feedback(-\\d+)?$")), null, 0),
+
+                find("ReviewRepository.findBySpaceId", reviews, new Document("spaceId", spaceId), null, 0),
+                find("ReviewRepository.findBySpaceIdAndLikedTrue", reviews,
+                        new Document("spaceId", spaceId).append("liked", true), null, 0),
+                find("ReviewRepositoryImpl.findPage (newest first)", reviews,
+                        new Document("spaceId", spaceId), newestFirst, 20),
+                find("ReviewRepositoryImpl.findPage (liked, rating range)", reviews,
+                        new Document("spaceId", spaceId).append("liked", false)
+                                .append("rating", new Document("$gte", 3).append("$lte", 5)), newestFirst, 20),
+                find("ReviewRepositoryImpl.findPage (date window, oldest first, after cursor)", reviews,
+                        new Document("$and", List.of(
+                                new Document("spaceId", spaceId),
+                                new Document("createdAt", new Document("$gte", weekAgo)),
+                                new Document("createdAt", new Document("$lt", now)),
+                                new Document("$or", List.of(
+                                        new Document("createdAt", new Document("$gt", weekAgo)),
+                                        new Document("createdAt", weekAgo).append("_id", new Document("$gt", id)))))),
+                        oldestFirst, 20),
+                new QueryShape("ReviewRepositoryImpl.search", new Document("find", reviews)
+                        .append("filter", new Document("$text", new Document("$search", "great support"))
+                                .append("spaceId", spaceId))
+                        .append("sort", new Document("score", new Document("$meta", "textScore")).append("_id", -1))
+                        .append("limit", 20), true),
+                find("ReviewRepositoryImpl.streamBySpaceId / deleteBatchBySpaceId", reviews,
+                        new Document("spaceId", spaceId), oldestFirst, 0),
+                find("ReviewRepositoryImpl.summarize / computeStats ($match)", reviews,
+                        new Document("spaceId", new Document("$in", List.of(spaceId, new ObjectId().toHexString()))), null, 0),
+                find("ReviewRepositoryImpl.findOwned / setLikedOwned / deleteAllOwned", reviews,
+                        new Document("_id", new Document("$in", List.of(id))).append("ownerId", ownerId), null, 0),
+                find("ReviewRepositoryImpl.toggleLike / deleteOwned", reviews,
+                        new Document("_id", id).append("ownerId", ownerId), null, 1),
+                new QueryShape("ReviewRepositoryImpl.findDistinctSpaceIds", new Document("distinct", reviews)
+                        .append("key", "spaceId").append("query", new Document()), false),
+
+                find("SpaceDeletionJobRepositoryImpl.claimNext", jobs, new Document("$and", List.of(
+                                new Document("status", new Document("$in", List.of(
+                                        SpaceDeletionJob.Status.PENDING.name(), SpaceDeletionJob.Status.RUNNING.name()))),
+                                new Document("$or", List.of(
+                                        new Document("leaseUntil", null),
+                                        new Document("leaseUntil", new Document("$lt", now)))))),
+                        new Document("createdAt", 1), 1),
+                find("SpaceDeletionJobRepository.findBySpaceIdAndOwnerId", jobs,
+                        new Document("_id", new ObjectId(spaceId)).append("ownerId", ownerId), null, 1)
+        );
+    }
+
+    private static QueryShape find(String name, String collection, Document filter, Document sort, int limit) {
+        Document command = new Document("find", collection).append("filter", filter);
+        if (sort != null) {
+            command.append("sort", sort);
+        }
+        if (limit > 0) {
+            command.append("limit", limit);
+        }
+        return new QueryShape(name, command, false);
+    }
+}
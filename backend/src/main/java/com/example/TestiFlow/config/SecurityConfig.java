@@ -1,7 +1,12 @@
 package com.example.TestiFlow.config;
 
 import com.example.TestiFlow.security.JwtAuthenticationFilter;
+import com.example.TestiFlow.security.RateLimitFilter;
+import com.example.TestiFlow.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +19,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -23,9 +33,33 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    // Raising the strength is safe: older hashes still verify and are rehashed on the next login
+    @Value("${testiflow.auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    // Metrics are scraped without credentials, so only on the internal management port unless
+    // testiflow.metrics.public=true explicitly opens them on the public port as well
+    @Value("${management.server.port:}")
+    private Integer managementPort;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${testiflow.metrics.public:false}")
+    private boolean metricsPublic;
+
+    private boolean isMetricsScrapeAllowed(HttpServletRequest request) {
+        boolean onManagementPort = managementPort != null && managementPort != serverPort
+                && request.getLocalPort() == managementPort;
+        return metricsPublic || onManagementPort;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry);
     }
 
     @Bean
@@ -40,22 +74,35 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(request -> {
                 var corsConfig = new org.springframework.web.cors.CorsConfiguration();
                 corsConfig.setAllowedOriginPatterns(java.util.List.of("*"));
-                corsConfig.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                corsConfig.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                 corsConfig.setAllowedHeaders(java.util.List.of("*"));
                 corsConfig.setAllowCredentials(true);
                 return corsConfig;
             }))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .headers(headers -> headers
+                // The embed widget is meant to be framed by customer sites; everything else stays DENY
+                .frameOptions(frameOptions -> frameOptions.disable())
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                    new NegatedRequestMatcher(PathPatternRequestMatcher.withDefaults().matcher("/api/embed/*/widget")),
+                    new XFrameOptionsHeaderWriter(XFrameOptionsHeaderWriter.XFrameOptionsMode.DENY))))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll() // Allow all preflight requests
+                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll() // Streamed responses; the request itself was already authorized
                 .requestMatchers("/api/auth/**").permitAll() // Public auth endpoints
                 .requestMatchers("/api/reviews/{slug}").permitAll() // Public review submission
                 .requestMatchers("/api/embed/**").permitAll() // Public embed endpoint
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll() // Probes
+                .requestMatchers(new AndRequestMatcher(PathPatternRequestMatcher.withDefaults().matcher("/actuator/prometheus"),
+                        this::isMetricsScrapeAllowed)).permitAll() // Metrics scraping
+                .requestMatchers("/actuator/prometheus").denyAll()
                 .anyRequest().authenticated() // All other requests need auth
             );
 
         // Add our custom JWT filter before the default one
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Throttle the public endpoints before spending any work on the token
+        http.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
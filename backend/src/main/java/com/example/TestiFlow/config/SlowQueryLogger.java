@@ -0,0 +1,109 @@
+package com.example.TestiFlow.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs every Mongo command that takes longer than the threshold, with its collection and the
+ * shape of its filter. It listens on the driver, so it covers everything MongoTemplate and the
+ * repositories send.
+ *
+ * Filter values are replaced by "?": the shape is what tells a missing index apart, and the
+ * values (emails, review text) don't belong in the log.
+ */
+public class SlowQueryLogger implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private static final int MAX_SHAPE_LENGTH = 500;
+
+    private record Started(String collection, String shape) {
+    }
+
+    private final long thresholdNanos;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+
+    public SlowQueryLogger(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // The command document is only valid during this callback, so the shape is taken now
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(event.getCommandName());
+        String collection = target instanceof BsonString name ? name.getValue() : "";
+        inFlight.put(event.getRequestId(), new Started(collection, shape(command)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), " (failed)");
+    }
+
+    private void finished(int requestId, String commandName, long elapsedNanos, String outcome) {
+        Started started = inFlight.remove(requestId);
+        if (started != null && elapsedNanos >= thresholdNanos) {
+            log.warn("Slow Mongo {} on {} took {} ms{}: {}", commandName, started.collection(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), outcome, started.shape());
+        }
+    }
+
+    // The part of the command that decides the plan, whichever command it is
+    private static String shape(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        for (String field : new String[] {"filter", "query", "q", "sort", "pipeline", "key"}) {
+            if (command.containsKey(field)) {
+                shape.put(field, redact(command.get(field), field.equals("sort") || field.equals("key")));
+            }
+        }
+        for (String batch : new String[] {"updates", "deletes"}) {
+            if (command.get(batch) instanceof BsonArray statements && !statements.isEmpty()
+                    && statements.get(0) instanceof BsonDocument first && first.containsKey("q")) {
+                shape.put(batch + "[0].q", redact(first.get("q"), false));
+            }
+        }
+        String json = shape.toJson();
+        return json.length() > MAX_SHAPE_LENGTH ? json.substring(0, MAX_SHAPE_LENGTH) + "..." : json;
+    }
+
+    private static BsonValue redact(BsonValue value, boolean keepValues) {
+        if (keepValues) {
+            return value; // Sort directions and distinct keys are part of the shape
+        }
+        if (value instanceof BsonDocument document) {
+            BsonDocument redacted = new BsonDocument();
+            document.forEach((key, nested) -> redacted.put(key,
+                    redact(nested, key.equals("$sort") || key.equals("$project") || key.equals("$group"))));
+            return redacted;
+        }
+        if (value instanceof BsonArray array) {
+            // Operator arrays ($and, $or, pipelines) keep every element; a plain value list ($in) becomes one "?"
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray redacted = new BsonArray();
+                array.forEach(element -> redacted.add(redact(element, false)));
+                return redacted;
+            }
+            return new BsonString("?");
+        }
+        return new BsonString("?");
+    }
+}
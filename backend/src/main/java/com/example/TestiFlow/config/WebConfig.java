@@ -23,7 +23,7 @@ public class WebConfig implements WebMvcConfigurer {
                     "http://localhost:5179"
             )
             // Allow common HTTP methods
-            .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+            .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
             // Allow all headers
             .allowedHeaders("*")
             // Allow credentials (like cookies or authorization headers)
@@ -0,0 +1,49 @@
+package com.example.TestiFlow.controller;
+
+import java.util.Locale;
+
+/**
+ * Reading of the Accept-Encoding request header, shared by the endpoints that can gzip.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Whether gzip is acceptable: listed as gzip or x-gzip with a q above 0, or, when neither is
+     * listed, covered by * with a q above 0. "gzip;q=0" refuses it even if * is also listed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = (gzip != null && gzip) || accepted(params);
+            } else if (coding.equals("*")) {
+                wildcard = accepted(params);
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    // No q parameter means q=1; an unreadable one counts as a refusal
+    private static boolean accepted(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim().replace(" ", "");
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -7,8 +7,13 @@ import com.example.TestiFlow.dto.UserDto;
 import com.example.TestiFlow.model.User;
 import com.example.TestiFlow.repository.UserRepository;
 import com.example.TestiFlow.security.JwtUtil;
+import com.example.TestiFlow.security.PasswordHashingExecutor;
+import com.example.TestiFlow.security.PrincipalCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +24,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -35,35 +42,60 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // Where sign-up continues once the hash is done, so the Mongo insert doesn't hold a hashing thread
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    // Both BCrypt-bound endpoints run on the password hashing pool; the request thread is released
+    // until the hash is done, and a full pool answers 503 straight away
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtil.generateToken(loginRequest.getEmail());
-        return ResponseEntity.ok(new JwtAuthResponse(jwt));
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return passwordHashingExecutor.<ResponseEntity<?>>submit(() -> {
+            // Also rehashes the stored password if the configured BCrypt strength has changed
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(),
+                            loginRequest.getPassword()
+                    )
+            );
+
+            // Stateless: no security context to keep, the client authenticates with the token from now on
+            String jwt = jwtUtil.generateToken(loginRequest.getEmail());
+            return ResponseEntity.ok(new JwtAuthResponse(jwt));
+        });
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return new ResponseEntity<>("Email is already taken!", HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>("Email is already taken!", HttpStatus.BAD_REQUEST));
         }
 
-        // Create new user's account
-        User user = new User(
-            signUpRequest.getName(),
-            signUpRequest.getEmail(),
-            passwordEncoder.encode(signUpRequest.getPassword())
-        );
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(signUpRequest.getPassword()))
+                .<ResponseEntity<?>>thenApplyAsync(encodedPassword -> {
+                    // Create new user's account
+                    User user = new User(
+                        signUpRequest.getName(),
+                        signUpRequest.getEmail(),
+                        encodedPassword
+                    );
 
-        userRepository.save(user);
-        return new ResponseEntity<>("User registered successfully", HttpStatus.CREATED);
+                    try {
+                        userRepository.insert(user);
+                    } catch (DuplicateKeyException ex) {
+                        // A concurrent sign-up with the same email won the unique index after our check
+                        return new ResponseEntity<>("Email is already taken!", HttpStatus.BAD_REQUEST);
+                    }
+                    principalCache.evict(user.getEmail()); // Drop anything cached for a previous account with this email
+                    return new ResponseEntity<>("User registered successfully", HttpStatus.CREATED);
+                }, taskExecutor);
     }
 
     @GetMapping("/me")
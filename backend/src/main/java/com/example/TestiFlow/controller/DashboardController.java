@@ -0,0 +1,42 @@
+package com.example.TestiFlow.controller;
+
+import com.example.TestiFlow.dto.DashboardSummaryDto;
+import com.example.TestiFlow.service.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    // monthStart lets the browser pass the start of the month in its own timezone (defaults to UTC)
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryDto> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant monthStart) {
+        String email = getAuthenticatedUserEmail();
+        Instant since = monthStart != null
+                ? monthStart
+                : LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return ResponseEntity.ok(reviewService.getDashboardSummary(email, since));
+    }
+
+    private String getAuthenticatedUserEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return ((UserDetails) authentication.getPrincipal()).getUsername();
+    }
+}
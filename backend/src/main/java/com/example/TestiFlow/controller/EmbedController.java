@@ -1,26 +1,110 @@
 package com.example.TestiFlow.controller;
 
-import com.example.TestiFlow.dto.ReviewDto; // Import DTO
-import com.example.TestiFlow.model.Review; // Remove this if no longer needed
-import com.example.TestiFlow.service.ReviewService;
+import com.example.TestiFlow.dto.WidgetLayout;
+import com.example.TestiFlow.service.EmbedService;
+import com.example.TestiFlow.service.EmbedWidgetService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/embed")
 public class EmbedController {
 
     @Autowired
-    private ReviewService reviewService;
+    private EmbedService embedService;
 
-    // UPDATE: ResponseEntity<List<Review>> to ResponseEntity<List<ReviewDto>>
+    @Value("${testiflow.embed.max-age:60s}")
+    private Duration maxAge;
+
+    @Value("${testiflow.embed.stale-while-revalidate:10m}")
+    private Duration staleWhileRevalidate;
+
+    @Autowired
+    private EmbedWidgetService embedWidgetService;
+
+    @Value("${testiflow.widget.max-age:5m}")
+    private Duration widgetMaxAge;
+
+    @Value("${testiflow.widget.stale-while-revalidate:7d}")
+    private Duration widgetStaleWhileRevalidate;
+
+    // Served from pre-serialized bytes; unchanged content is answered with 304 and no body
     @GetMapping("/{spaceId}")
-    public ResponseEntity<List<ReviewDto>> getLikedReviewsForEmbed(@PathVariable String spaceId) {
-        // Service now returns List<ReviewDto>
-        List<ReviewDto> reviews = reviewService.getLikedReviews(spaceId);
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<byte[]> getLikedReviewsForEmbed(
+            @PathVariable String spaceId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        EmbedService.EmbedPayload payload = embedService.getLikedReviews(spaceId);
+        CacheControl cacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(staleWhileRevalidate);
+
+        if (etagMatches(ifNoneMatch, payload.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(payload.etag())
+                .cacheControl(cacheControl)
+                .body(payload.json());
+    }
+
+    // Server-rendered HTML for an iframe: ?layout=grid|slider|masonry|minimal|card-stack.
+    // Pre-gzipped bytes when the client accepts gzip; each encoding has its own ETag
+    @GetMapping(value = "/{spaceId}/widget", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getWidget(
+            @PathVariable String spaceId,
+            @RequestParam(defaultValue = "grid") String layout,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        EmbedWidgetService.WidgetPayload widget = embedWidgetService.getWidget(spaceId, WidgetLayout.from(layout));
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        String etag = gzip ? widget.etag().replaceFirst("\"$", "-gzip\"") : widget.etag();
+        // Short freshness, long stale window: a like shows up within max-age, yet a visit never waits on us
+        CacheControl cacheControl = CacheControl.maxAge(widgetMaxAge)
+                .cachePublic()
+                .staleWhileRevalidate(widgetStaleWhileRevalidate);
+
+        boolean notModified = etagMatches(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder response = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        response.eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                // No scripts or outside resources in the page; any site may frame it
+                .header("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'; frame-ancestors *");
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(gzip ? widget.gzip() : widget.html());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,32 @@
 package com.example.TestiFlow.controller;
 
+import com.example.TestiFlow.dto.BulkReviewRequest;
+import com.example.TestiFlow.dto.BulkReviewResultDto;
 import com.example.TestiFlow.dto.ReviewDto; // Import DTO
+import com.example.TestiFlow.dto.ReviewExportFormat;
+import com.example.TestiFlow.dto.ReviewPageDto;
+import com.example.TestiFlow.dto.ReviewPageRequest;
 import com.example.TestiFlow.dto.ReviewRequest;
-import com.example.TestiFlow.model.Space; // Keep for submitReview
+import com.example.TestiFlow.dto.ReviewSearchRequest;
+import com.example.TestiFlow.dto.SpaceDto; // Keep for submitReview
+import com.example.TestiFlow.service.ReviewFeedHub;
 import com.example.TestiFlow.service.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
-import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -23,25 +35,80 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ReviewFeedHub reviewFeedHub;
+
     // PUBLIC ENDPOINT for review submission
     @PostMapping("/{slug}")
     public ResponseEntity<Void> submitReview(@PathVariable String slug, @Valid @RequestBody ReviewRequest reviewRequest) {
         // Service returns Space for redirect URL
-        Space space = reviewService.submitReview(slug, reviewRequest);
-        // For API calls, return 201 Created instead of redirect to avoid CORS issues
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        SpaceDto space = reviewService.submitReview(slug, reviewRequest);
+        // For API calls, return 201 Created instead of redirect to avoid CORS issues;
+        // 202 Accepted when the review is only queued for a batched write
+        return ResponseEntity.status(reviewService.isAsyncIngestion() ? HttpStatus.ACCEPTED : HttpStatus.CREATED).build();
     }
 
-    // UPDATE: ResponseEntity<List<Review>> to ResponseEntity<List<ReviewDto>>
+    // Paged: ?cursor=&limit=&minRating=&maxRating=&liked=&from=&to=&sort=newest|oldest
     @GetMapping("/{spaceId}")
-    public ResponseEntity<List<ReviewDto>> getReviewsForSpace(@PathVariable String spaceId) {
+    public ResponseEntity<ReviewPageDto> getReviewsForSpace(@PathVariable String spaceId, ReviewPageRequest pageRequest) {
         String email = getAuthenticatedUserEmail();
-        // Service now returns List<ReviewDto>
-        List<ReviewDto> reviews = reviewService.getReviewsForSpace(spaceId, email);
-        return ResponseEntity.ok(reviews);
+        ReviewPageDto page = reviewService.getReviewsForSpace(spaceId, email, pageRequest);
+        return ResponseEntity.ok(page);
         // Removed try-catch as exceptions should be handled globally or by service
     }
 
+    // Relevance-ranked: ?q=&cursor=&limit=&minRating=&maxRating=&liked=
+    @GetMapping("/{spaceId}/search")
+    public ResponseEntity<ReviewPageDto> searchReviews(@PathVariable String spaceId, ReviewSearchRequest searchRequest) {
+        String email = getAuthenticatedUserEmail();
+        return ResponseEntity.ok(reviewService.searchReviews(spaceId, email, searchRequest));
+    }
+
+    // Live feed for the space page: "submitted", "liked", "unliked" and "deleted" events carrying the review
+    @GetMapping(value = "/{spaceId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReviewEvents(@PathVariable String spaceId) {
+        String email = getAuthenticatedUserEmail();
+        reviewService.checkSpaceOwnership(spaceId, email);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // Keep proxies like nginx from buffering the stream
+                .body(reviewFeedHub.subscribe(spaceId));
+    }
+
+    // Full export streamed from a cursor: ?format=ndjson|csv, gzip when the client accepts it
+    @GetMapping("/{spaceId}/export")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @PathVariable String spaceId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String email = getAuthenticatedUserEmail();
+        ReviewExportFormat exportFormat = ReviewExportFormat.from(format);
+        reviewService.checkSpaceOwnership(spaceId, email); // Before the 200 is committed
+
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so each chunk flush actually reaches the client
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+                reviewService.exportReviews(spaceId, exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                reviewService.exportReviews(spaceId, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reviews-" + spaceId + "." + exportFormat.getExtension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     // UPDATE: ResponseEntity<Review> to ResponseEntity<ReviewDto>
     @PutMapping("/{id}/like")
     public ResponseEntity<ReviewDto> likeReview(@PathVariable String id) {
@@ -52,6 +119,14 @@ public class ReviewController {
         // Removed try-catch as exceptions should be handled globally or by service
     }
 
+    // Bulk moderation: {"ids": [...], "action": "like" | "unlike" | "delete"}.
+    // On the collection path rather than /bulk, which would shadow a space whose slug is "bulk"
+    @PatchMapping
+    public ResponseEntity<BulkReviewResultDto> moderateReviews(@Valid @RequestBody BulkReviewRequest request) {
+        String email = getAuthenticatedUserEmail();
+        return ResponseEntity.ok(reviewService.moderate(request, email));
+    }
+
     // DELETE endpoint remains the same
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReview(@PathVariable String id) {
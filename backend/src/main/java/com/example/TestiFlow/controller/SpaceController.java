@@ -1,9 +1,12 @@
 package com.example.TestiFlow.controller;
 
+import com.example.TestiFlow.dto.SpaceDeletionStatusDto;
 import com.example.TestiFlow.dto.SpaceDto;
 import com.example.TestiFlow.dto.SpaceRequest;
-
+import com.example.TestiFlow.dto.SpaceStatsDto;
+import com.example.TestiFlow.exception.ResourceNotFoundException;
 import com.example.TestiFlow.service.SpaceService;
+import com.example.TestiFlow.service.SpaceStatsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,6 +25,9 @@ public class SpaceController {
     @Autowired
     private SpaceService spaceService;
 
+    @Autowired
+    private SpaceStatsService spaceStatsService;
+
     // UPDATE: ResponseEntity<Space> to ResponseEntity<SpaceDto>
     @PostMapping
     public ResponseEntity<SpaceDto> createSpace(@Valid @RequestBody SpaceRequest spaceRequest) {
@@ -63,6 +69,31 @@ public class SpaceController {
         return ResponseEntity.noContent().build();
     }
 
+    // The space is gone immediately; its reviews are removed in the background. Poll this for progress.
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<SpaceDeletionStatusDto> getDeletionStatus(@PathVariable String id) {
+        String email = getAuthenticatedUserEmail();
+        return ResponseEntity.ok(spaceService.getDeletionStatus(id, email));
+    }
+
+    // Precomputed counters; constant cost regardless of how many reviews the space has
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<SpaceStatsDto> getSpaceStats(@PathVariable String id) {
+        String email = getAuthenticatedUserEmail();
+        spaceService.getSpaceByIdAndUser(id, email)
+                .orElseThrow(() -> new ResourceNotFoundException("Space not found with id: " + id));
+        return ResponseEntity.ok(spaceStatsService.getStats(id));
+    }
+
+    // Repair: recompute the counters from the reviews themselves
+    @PostMapping("/{id}/stats/rebuild")
+    public ResponseEntity<SpaceStatsDto> rebuildSpaceStats(@PathVariable String id) {
+        String email = getAuthenticatedUserEmail();
+        spaceService.getSpaceByIdAndUser(id, email)
+                .orElseThrow(() -> new ResourceNotFoundException("Space not found with id: " + id));
+        return ResponseEntity.ok(spaceStatsService.rebuildStats(id));
+    }
+
     private String getAuthenticatedUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
@@ -0,0 +1,23 @@
+package com.example.TestiFlow.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/reviews: one moderation action applied to many reviews.
+ */
+@Data
+public class BulkReviewRequest {
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    private List<String> ids;
+
+    @NotBlank
+    private String action; // "like", "unlike" or "delete"
+}
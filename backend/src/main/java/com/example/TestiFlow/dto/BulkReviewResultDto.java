@@ -0,0 +1,15 @@
+package com.example.TestiFlow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class BulkReviewResultDto {
+    private String action;
+    private int changed;
+    // Per requested id: "liked", "unliked", "deleted", "unchanged" or "not_found"
+    private Map<String, String> results;
+}
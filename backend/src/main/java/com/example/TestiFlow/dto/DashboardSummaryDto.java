@@ -0,0 +1,18 @@
+package com.example.TestiFlow.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard home page shows, computed server-side in one request.
+ */
+@Data
+public class DashboardSummaryDto {
+    private int totalSpaces;
+    private long totalReviews;
+    private long thisMonthReviews;
+    private long likedReviews;
+    private double averageRating;
+    private List<ReviewDto> recentReviews;
+}
@@ -0,0 +1,36 @@
+package com.example.TestiFlow.dto;
+
+import com.example.TestiFlow.exception.BadRequestException;
+
+/**
+ * Output formats for GET /api/reviews/{spaceId}/export.
+ */
+public enum ReviewExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ReviewExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ReviewExportFormat from(String value) {
+        for (ReviewExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + value);
+    }
+}
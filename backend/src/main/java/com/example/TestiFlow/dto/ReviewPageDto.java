@@ -0,0 +1,17 @@
+package com.example.TestiFlow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of reviews. nextCursor is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class ReviewPageDto {
+    private List<ReviewDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
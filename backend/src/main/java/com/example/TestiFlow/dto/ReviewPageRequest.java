@@ -0,0 +1,42 @@
+package com.example.TestiFlow.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+
+/**
+ * Query parameters for GET /api/reviews/{spaceId}.
+ * All filters are optional; cursor is the nextCursor of the previous page.
+ */
+@Data
+public class ReviewPageRequest {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private String cursor;
+    private Integer limit;
+
+    private Integer minRating;
+    private Integer maxRating;
+    private Boolean liked;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant from; // Inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant to; // Exclusive
+
+    private String sort = "newest"; // "newest" or "oldest"
+
+    public int effectiveLimit() {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public boolean isOldestFirst() {
+        return "oldest".equalsIgnoreCase(sort);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.TestiFlow.dto;
+
+import lombok.Data;
+
+/**
+ * Query parameters for GET /api/reviews/{spaceId}/search.
+ * q is required; the filters are optional; cursor is the nextCursor of the previous page.
+ */
+@Data
+public class ReviewSearchRequest {
+    public static final int MAX_QUERY_LENGTH = 200;
+    // Relevance order can't be paged by keyset, so deep pages cost a skip; stop there
+    public static final int MAX_RESULTS = 1000;
+
+    private String q;
+    private String cursor;
+    private Integer limit;
+
+    private Integer minRating;
+    private Integer maxRating;
+    private Boolean liked;
+
+    public int effectiveLimit() {
+        if (limit == null || limit <= 0) {
+            return ReviewPageRequest.DEFAULT_LIMIT;
+        }
+        return Math.min(limit, ReviewPageRequest.MAX_LIMIT);
+    }
+}
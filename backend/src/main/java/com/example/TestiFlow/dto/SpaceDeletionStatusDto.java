@@ -0,0 +1,15 @@
+package com.example.TestiFlow.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class SpaceDeletionStatusDto {
+    private String spaceId;
+    private String status; // PENDING, RUNNING or DONE
+    private long deletedReviews;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+}
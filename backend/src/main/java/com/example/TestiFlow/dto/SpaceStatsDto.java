@@ -0,0 +1,15 @@
+package com.example.TestiFlow.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class SpaceStatsDto {
+    private String spaceId;
+    private long totalCount;
+    private long likedCount;
+    private double averageRating;
+    private Map<String, Long> ratingHistogram; // "1".."5" -> count
+    private Map<String, Long> monthly; // "yyyy-MM" -> count
+}
@@ -0,0 +1,33 @@
+package com.example.TestiFlow.dto;
+
+import com.example.TestiFlow.exception.BadRequestException;
+
+/**
+ * Layouts for GET /api/embed/{spaceId}/widget, matching the templates on the wall-of-love page.
+ */
+public enum WidgetLayout {
+    GRID("grid"),
+    SLIDER("slider"),
+    MASONRY("masonry"),
+    MINIMAL("minimal"),
+    CARD_STACK("card-stack");
+
+    private final String value;
+
+    WidgetLayout(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static WidgetLayout from(String value) {
+        for (WidgetLayout layout : values()) {
+            if (layout.value.equalsIgnoreCase(value)) {
+                return layout;
+            }
+        }
+        throw new BadRequestException("Unsupported widget layout: " + value);
+    }
+}
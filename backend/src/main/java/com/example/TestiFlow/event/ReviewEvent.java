@@ -0,0 +1,22 @@
+package com.example.TestiFlow.event;
+
+import com.example.TestiFlow.dto.ReviewDto;
+
+/**
+ * Published by ReviewService after a review change has been persisted.
+ * Listeners run synchronously on the publishing thread, so they must stay cheap.
+ */
+public record ReviewEvent(Type type, String spaceId, ReviewDto review) {
+
+    public enum Type {
+        SUBMITTED,
+        LIKED,
+        UNLIKED,
+        DELETED
+    }
+
+    // Whether the set of liked (publicly embedded) reviews may have changed
+    public boolean affectsLikedSet() {
+        return type == Type.LIKED || type == Type.UNLIKED || (type == Type.DELETED && review != null && review.isLiked());
+    }
+}
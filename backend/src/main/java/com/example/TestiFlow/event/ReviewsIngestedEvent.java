@@ -0,0 +1,11 @@
+package com.example.TestiFlow.event;
+
+import com.example.TestiFlow.model.Review;
+
+import java.util.List;
+
+/**
+ * Published by the ingestion writer after a batch of queued submissions has been inserted.
+ */
+public record ReviewsIngestedEvent(List<Review> reviews) {
+}
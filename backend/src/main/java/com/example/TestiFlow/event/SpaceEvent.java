@@ -0,0 +1,12 @@
+package com.example.TestiFlow.event;
+
+/**
+ * Published by SpaceService after a space has been updated or deleted.
+ */
+public record SpaceEvent(Type type, String spaceId) {
+
+    public enum Type {
+        UPDATED,
+        DELETED
+    }
+}
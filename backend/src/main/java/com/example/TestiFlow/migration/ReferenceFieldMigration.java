@@ -0,0 +1,181 @@
+package com.example.TestiFlow.migration;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-shot rewrite of the old @DBRef fields into plain id fields:
+ * reviews.space -> reviews.spaceId and spaces.user -> spaces.ownerId,
+ * followed by copying each space's ownerId onto its reviews and dropping users.spaces.
+ *
+ * Only documents that still carry the old field are touched, so running it again is a no-op.
+ * Documents are walked in _id order and rewritten with unordered bulk writes of batchSize.
+ *
+ * Readers only know the new fields, so this runs before the web server starts. If the database
+ * can't be reached then, it is retried in the background and this bean's health indicator (part
+ * of the readiness group, /actuator/health/readiness) is OUT_OF_SERVICE until it has gone through.
+ */
+@Component
+@Profile("!inmemory") // Needs a real database
+public class ReferenceFieldMigration implements SmartInitializingSingleton, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceFieldMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${testiflow.migration.reference-fields.enabled:true}")
+    private boolean enabled;
+
+    @Value("${testiflow.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${testiflow.migration.retry-interval:30s}")
+    private Duration retryInterval;
+
+    private volatile boolean pending;
+
+    // Singletons are all created but nothing listens yet: the web server starts after this
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception ex) {
+            log.error("Reference field migration failed; retrying every {} and refusing traffic until it succeeds",
+                    retryInterval, ex);
+            pending = true;
+            Thread thread = new Thread(this::retryUntilDone, "reference-field-migration");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return pending ? Health.outOfService().withDetail("referenceFields", "migration pending").build() : Health.up().build();
+    }
+
+    private void retryUntilDone() {
+        while (pending) {
+            try {
+                Thread.sleep(retryInterval.toMillis());
+                migrate();
+                pending = false;
+                log.info("Reference field migration completed on retry");
+            } catch (InterruptedException ex) {
+                return;
+            } catch (Exception ex) {
+                log.warn("Reference field migration still failing: {}", ex.getMessage());
+            }
+        }
+    }
+
+    public void migrate() {
+        long reviews = rewrite("reviews", "space", "spaceId");
+        long spaces = rewrite("spaces", "user", "ownerId");
+        long owners = backfillReviewOwners();
+        long users = dropUserSpaceLists();
+        if (reviews > 0 || spaces > 0 || owners > 0 || users > 0) {
+            log.info("Reference field migration rewrote {} reviews and {} spaces, set ownerId on {} reviews, "
+                    + "dropped the spaces list from {} users", reviews, spaces, owners, users);
+        }
+    }
+
+    /**
+     * Removes users.spaces, the old @DBRef back-reference list; a user's spaces are found by spaces.ownerId.
+     */
+    long dropUserSpaceLists() {
+        return mongoTemplate.getCollection("users")
+                .updateMany(Filters.exists("spaces"), Updates.unset("spaces"))
+                .getModifiedCount();
+    }
+
+    /**
+     * Sets reviews.ownerId from the owning space, one updateMany per space that still has reviews without it.
+     */
+    long backfillReviewOwners() {
+        MongoCollection<Document> reviews = mongoTemplate.getCollection("reviews");
+        MongoCollection<Document> spaces = mongoTemplate.getCollection("spaces");
+        Bson missingOwner = Filters.and(Filters.exists("spaceId"), Filters.exists("ownerId", false));
+
+        long updated = 0;
+        for (String spaceId : reviews.distinct("spaceId", missingOwner, String.class)) {
+            Document space = spaces.find(Filters.eq("_id", toObjectIdIfValid(spaceId)))
+                    .projection(Projections.include("ownerId"))
+                    .first();
+            if (space == null || space.getString("ownerId") == null) {
+                continue; // Orphaned reviews; they are never listed, so leave them alone
+            }
+            updated += reviews.updateMany(
+                    Filters.and(Filters.eq("spaceId", spaceId), Filters.exists("ownerId", false)),
+                    Updates.set("ownerId", space.getString("ownerId"))).getModifiedCount();
+        }
+        return updated;
+    }
+
+    private static Object toObjectIdIfValid(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Replaces the DBRef in oldField with its id as a string in newField.
+     * Returns the number of documents rewritten.
+     */
+    long rewrite(String collectionName, String oldField, String newField) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        Bson pending = Filters.and(Filters.exists(oldField), Filters.exists(newField, false));
+
+        long rewritten = 0;
+        Object lastId = null;
+        while (true) {
+            Bson filter = lastId == null ? pending : Filters.and(pending, Filters.gt("_id", lastId));
+            List<Document> batch = collection.find(filter)
+                    .projection(Projections.include(oldField))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>(batchSize));
+            if (batch.isEmpty()) {
+                return rewritten;
+            }
+
+            List<WriteModel<Document>> writes = new ArrayList<>(batch.size());
+            for (Document doc : batch) {
+                Object ref = doc.get(oldField);
+                Object id = ref instanceof DBRef dbRef ? dbRef.getId() : null;
+                Bson update = id == null
+                        ? Updates.unset(oldField) // Dangling or malformed reference
+                        : Updates.combine(Updates.set(newField, id.toString()), Updates.unset(oldField));
+                writes.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")), update));
+            }
+            rewritten += collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getModifiedCount();
+            lastId = batch.get(batch.size() - 1).get("_id");
+        }
+    }
+}
@@ -4,19 +4,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
 
-@Document(collection = "reviews")
+@Document(collection = "reviews") // Indexes are declared in MongoIndexes
 @Data
 @NoArgsConstructor
 public class Review {
     @Id
     private String id;
 
-    @DBRef
-    private Space space;
+    private String spaceId; // Plain reference to Space.id, no dereference on load
+
+    private String ownerId; // Copy of Space.ownerId so ownership is part of the write filter
 
     private String authorName;
     private String authorEmail; // Optional
@@ -30,8 +30,9 @@ public class Review {
     @CreatedDate
     private Instant createdAt;
 
-    public Review(Space space, String authorName, String authorEmail, int rating, String text) {
-        this.space = space;
+    public Review(String spaceId, String ownerId, String authorName, String authorEmail, int rating, String text) {
+        this.spaceId = spaceId;
+        this.ownerId = ownerId;
         this.authorName = authorName;
         this.authorEmail = authorEmail;
         this.rating = rating;
@@ -0,0 +1,20 @@
+package com.example.TestiFlow.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Last suffix handed out for a base slug: 0 means the bare base ("feedback"),
+ * n means "feedback-n". Lets createSpace pick the next free slug in one round trip.
+ */
+@Document(collection = "slug_counters")
+@Data
+@NoArgsConstructor
+public class SlugCounter {
+    @Id
+    private String base;
+
+    private long seq;
+}
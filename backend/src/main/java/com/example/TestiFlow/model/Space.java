@@ -3,27 +3,23 @@ package com.example.TestiFlow.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
 
-@Document(collection = "spaces")
+@Document(collection = "spaces") // Indexes are declared in MongoIndexes
 @Data
 @NoArgsConstructor
 public class Space {
     @Id
     private String id;
 
-    @DBRef
-    private User user; // The owner
+    private String ownerId; // User.id of the owner; findByOwnerId / findByIdAndOwnerId
 
     @NotBlank
     private String name;
 
-    @Indexed(unique = true)
-    private String slug; // Auto-generated, e.g., "my-product"
+    private String slug; // Auto-generated, e.g., "my-product"; unique
 
     private String publicUrl; // Auto-generated, e.g., "/t/my-product"
 
@@ -0,0 +1,51 @@
+package com.example.TestiFlow.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Removal of a deleted space's reviews, done in the background by SpaceDeletionService.
+ * The space document itself is already gone when the job is created.
+ *
+ * A worker holds a job while leaseUntil is in the future and renews it after every batch;
+ * a job whose lease has run out (e.g. the instance restarted) is picked up again.
+ */
+@Document(collection = "space_deletion_jobs") // Indexes are declared in MongoIndexes
+@Data
+@NoArgsConstructor
+public class SpaceDeletionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        DONE
+    }
+
+    @Id
+    private String spaceId; // At most one job per space
+
+    private String ownerId; // Null for orphans found by the sweeper
+
+    private Status status = Status.PENDING;
+
+    private long deletedReviews;
+
+    private Instant leaseUntil;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    private Instant completedAt;
+
+    public SpaceDeletionJob(String spaceId, String ownerId, Instant now) {
+        this.spaceId = spaceId;
+        this.ownerId = ownerId;
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+}
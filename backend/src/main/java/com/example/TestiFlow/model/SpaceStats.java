@@ -0,0 +1,42 @@
+package com.example.TestiFlow.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running review statistics for one space, kept up to date with $inc
+ * so reading them never touches the reviews collection.
+ */
+@Document(collection = "space_stats")
+@Data
+@NoArgsConstructor
+public class SpaceStats {
+    @Id
+    private String spaceId; // Same id as the Space
+
+    private long totalCount;
+    private long ratingSum;
+    private long likedCount;
+
+    private Map<String, Long> ratingHistogram = new HashMap<>(); // "1".."5" -> count
+    private Map<String, Long> monthly = new HashMap<>(); // "yyyy-MM" (UTC) -> count
+
+    private Instant rebuiltAt; // Last full recomputation, null if only ever maintained incrementally
+
+    // Bumped by every write; a rebuild only replaces the counters if no increment landed while it ran
+    private long version;
+
+    // Set when increments created the document (a space that predates stats tracking): the
+    // counters then only hold what arrived since, until the next rebuild
+    private boolean rebuildNeeded;
+
+    public SpaceStats(String spaceId) {
+        this.spaceId = spaceId;
+    }
+}
@@ -2,13 +2,8 @@ package com.example.TestiFlow.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Document(collection = "users")
 @Data
 @NoArgsConstructor
@@ -18,13 +13,11 @@ public class User {
     
     private String name;
     
-    @Indexed(unique = true)
-    private String email;
+    private String email; // Unique index, declared in MongoIndexes
     
     private String password;
 
-    @DBRef(lazy = true) // Use lazy loading to avoid fetching all spaces every time
-    private List<Object> spaces = new ArrayList<>();
+    // No list of spaces here: they are found by Space.ownerId, so creating one never rewrites the user
 
     public User(String name, String email, String password) {
         this.name = name;
@@ -5,7 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface ReviewRepository extends MongoRepository<Review, String> {
+public interface ReviewRepository extends MongoRepository<Review, String>, ReviewRepositoryCustom {
     List<Review> findBySpaceId(String spaceId);
     List<Review> findBySpaceIdAndLikedTrue(String spaceId);
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.dto.ReviewPageRequest;
+import com.example.TestiFlow.dto.ReviewSearchRequest;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.SpaceStats;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Queries that derived finder methods can't express. Implemented in ReviewRepositoryImpl.
+ */
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Returns up to limit reviews of a space after the given cursor (null for the first page),
+     * ordered by (createdAt, id) in the requested direction and narrowed by the request's filters.
+     */
+    List<Review> findPage(String spaceId, ReviewPageRequest request, ReviewCursor after, int limit);
+
+    /**
+     * Reviews of a space matching the request's search terms (text and author name), best match first,
+     * narrowed by its filters. Served by the space_text index, so only the space's matching entries are read.
+     */
+    List<Review> search(String spaceId, ReviewSearchRequest request, int offset, int limit);
+
+    /**
+     * Totals, liked count, average rating, count created since the given instant and the
+     * most recent reviews across the given spaces, computed by a single aggregation.
+     */
+    ReviewSummary summarize(Collection<String> spaceIds, Instant since, int recentLimit);
+
+    /**
+     * Recomputes a space's statistics from its reviews. Used to build or repair SpaceStats.
+     */
+    SpaceStats computeStats(String spaceId);
+
+    /**
+     * Flips liked on the review if it belongs to ownerId, in one findAndModify.
+     * Returns the updated review, or null if no such review is owned by ownerId.
+     */
+    Review toggleLike(String reviewId, String ownerId);
+
+    /**
+     * Deletes the review if it belongs to ownerId, in one findAndRemove.
+     * Returns the removed review, or null if no such review is owned by ownerId.
+     */
+    Review deleteOwned(String reviewId, String ownerId);
+
+    /**
+     * The reviews among ids that belong to ownerId, in one query.
+     */
+    List<Review> findOwned(Collection<String> ids, String ownerId);
+
+    /**
+     * Sets liked on those of ids that belong to ownerId and don't already have that value, in one
+     * updateMany. Returns exactly the reviews this call changed (in their new state), so stats and
+     * events can follow from them even while single toggles and deletes run concurrently.
+     */
+    List<Review> setLikedOwned(Collection<String> ids, String ownerId, boolean liked);
+
+    /**
+     * Deletes those of ids that belong to ownerId in one deleteMany. Returns exactly the reviews
+     * this call removed.
+     */
+    List<Review> deleteAllOwned(Collection<String> ids, String ownerId);
+
+    /**
+     * Unordered insertMany of reviews whose ids are already set. Returns the reviews that are now
+     * stored: those this call inserted, plus those whose id was already taken (an earlier attempt
+     * wrote them but its reply was lost). Reviews that failed for any other reason are left out.
+     */
+    List<Review> insertAssigned(List<Review> reviews);
+
+    /**
+     * All reviews of a space, oldest first, read lazily from a cursor batchSize documents at a time.
+     * The caller must close the stream.
+     */
+    Stream<Review> streamBySpaceId(String spaceId, int batchSize);
+
+    /**
+     * Deletes up to batchSize reviews of the space with one deleteMany on their ids.
+     * Returns how many were deleted; 0 once the space has none left.
+     */
+    long deleteBatchBySpaceId(String spaceId, int batchSize);
+
+    /**
+     * Every distinct spaceId referenced by a review, read from the spaceId index.
+     */
+    List<String> findDistinctSpaceIds();
+}
@@ -0,0 +1,373 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.dto.ReviewPageRequest;
+import com.example.TestiFlow.dto.ReviewSearchRequest;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.SpaceStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import com.mongodb.MongoClientException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewRepositoryImpl.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int ILLEGAL_OPERATION = 20; // "Transaction numbers are only allowed on a replica set member or mongos"
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+
+    private volatile TransactionTemplate transactionTemplate;
+    private volatile boolean transactionsUnsupported;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Review> findPage(String spaceId, ReviewPageRequest request, ReviewCursor after, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("spaceId").is(spaceId));
+
+        if (request.getLiked() != null) {
+            criteria.add(Criteria.where("liked").is(request.getLiked()));
+        }
+        if (request.getMinRating() != null) {
+            criteria.add(Criteria.where("rating").gte(request.getMinRating()));
+        }
+        if (request.getMaxRating() != null) {
+            criteria.add(Criteria.where("rating").lte(request.getMaxRating()));
+        }
+        if (request.getFrom() != null) {
+            criteria.add(Criteria.where("createdAt").gte(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            criteria.add(Criteria.where("createdAt").lt(request.getTo()));
+        }
+
+        boolean ascending = request.isOldestFirst();
+        if (after != null) {
+            // (createdAt, id) strictly past the cursor, so every page is an index seek
+            Criteria pastCreatedAt = ascending
+                    ? Criteria.where("createdAt").gt(after.createdAt())
+                    : Criteria.where("createdAt").lt(after.createdAt());
+            Criteria sameCreatedAt = ascending
+                    ? Criteria.where("createdAt").is(after.createdAt()).and("id").gt(after.id())
+                    : Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id());
+            criteria.add(new Criteria().orOperator(pastCreatedAt, sameCreatedAt));
+        }
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Query query = new Query(new Criteria().andOperator(criteria))
+                .with(Sort.by(direction, "createdAt").and(Sort.by(direction, "id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Review.class);
+    }
+
+    @Override
+    public List<Review> findOwned(Collection<String> ids, String ownerId) {
+        return mongoTemplate.find(ownedAmong(ids, ownerId), Review.class);
+    }
+
+    @Override
+    public List<Review> setLikedOwned(Collection<String> ids, String ownerId, boolean liked) {
+        Query query = ownedAmong(ids, ownerId);
+        query.addCriteria(Criteria.where("liked").is(!liked));
+        return inTransaction(
+                () -> {
+                    // Same snapshot for the read and the write: a review changed by anyone else in
+                    // between is a write conflict (and a retry), so what we read is what we changed
+                    List<Review> changed = mongoTemplate.find(query, Review.class);
+                    mongoTemplate.updateMulti(query, new Update().set("liked", liked), Review.class);
+                    changed.forEach(review -> review.setLiked(liked));
+                    return changed;
+                },
+                () -> perReview(ids, id -> mongoTemplate.findAndModify(
+                        ownedBy(id, ownerId).addCriteria(Criteria.where("liked").is(!liked)),
+                        new Update().set("liked", liked),
+                        FindAndModifyOptions.options().returnNew(true), Review.class)));
+    }
+
+    @Override
+    public List<Review> deleteAllOwned(Collection<String> ids, String ownerId) {
+        Query query = ownedAmong(ids, ownerId);
+        return inTransaction(
+                () -> {
+                    List<Review> removed = mongoTemplate.find(query, Review.class);
+                    mongoTemplate.remove(query, Review.class);
+                    return removed;
+                },
+                () -> perReview(ids, id -> mongoTemplate.findAndRemove(ownedBy(id, ownerId), Review.class)));
+    }
+
+    /**
+     * Runs work in a transaction, retrying transient conflicts. A standalone server has no
+     * transactions; there each review is changed by its own findAndModify / findAndRemove instead,
+     * which is just as exact, only one round trip per review.
+     */
+    private List<Review> inTransaction(Supplier<List<Review>> work, Supplier<List<Review>> fallback) {
+        if (transactionsUnsupported) {
+            return fallback.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions().execute(status -> work.get());
+            } catch (RuntimeException ex) {
+                if (causedBy(ex, e -> e instanceof MongoClientException && String.valueOf(e.getMessage()).contains("not supported")
+                        || e instanceof MongoCommandException c && c.getErrorCode() == ILLEGAL_OPERATION)) {
+                    transactionsUnsupported = true;
+                    log.warn("MongoDB transactions are not available; bulk moderation falls back to one write per review");
+                    return fallback.get();
+                }
+                if (attempt >= MAX_TRANSACTION_ATTEMPTS || !causedBy(ex, e -> e instanceof MongoException m
+                        && m.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL))) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private TransactionTemplate transactions() {
+        TransactionTemplate template = transactionTemplate;
+        if (template == null) {
+            template = new TransactionTemplate(new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory()));
+            transactionTemplate = template;
+        }
+        return template;
+    }
+
+    private static List<Review> perReview(Collection<String> ids, Function<String, Review> write) {
+        List<Review> changed = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Review review = write.apply(id);
+            if (review != null) {
+                changed.add(review);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean causedBy(Throwable ex, Predicate<Throwable> test) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (test.test(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Review> insertAssigned(List<Review> reviews) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+        bulk.insert(reviews);
+        try {
+            bulk.execute();
+            return reviews;
+        } catch (BulkOperationException ex) {
+            if (ex.getErrors().isEmpty()) {
+                throw ex; // Write concern error: nothing is known per review, so the caller retries them all
+            }
+            // A duplicate _id means the review is already there; only the other failures are unwritten
+            Set<Integer> unwritten = ex.getErrors().stream()
+                    .filter(error -> error.getCode() != DUPLICATE_KEY)
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+            List<Review> written = new ArrayList<>(reviews.size() - unwritten.size());
+            for (int i = 0; i < reviews.size(); i++) {
+                if (!unwritten.contains(i)) {
+                    written.add(reviews.get(i));
+                }
+            }
+            return written;
+        }
+    }
+
+    @Override
+    public Stream<Review> streamBySpaceId(String spaceId, int batchSize) {
+        // Oldest first, so the export reads in creation order. The space_created index is
+        // (createdAt -1, _id -1), so this ascending sort scans it in reverse. Only one cursor
+        // batch is held in memory.
+        Query query = new Query(Criteria.where("spaceId").is(spaceId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "id")))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Review.class);
+    }
+
+    @Override
+    public long deleteBatchBySpaceId(String spaceId, int batchSize) {
+        // deleteMany has no limit, so select one batch of ids first to keep each delete short
+        Query batch = new Query(Criteria.where("spaceId").is(spaceId)).limit(batchSize);
+        batch.fields().include("_id");
+        List<Object> ids = new ArrayList<>(batchSize);
+        for (Document doc : mongoTemplate.find(batch, Document.class, "reviews")) {
+            ids.add(doc.get("_id"));
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), "reviews").getDeletedCount();
+    }
+
+    @Override
+    public List<String> findDistinctSpaceIds() {
+        return mongoTemplate.findDistinct(new Query(), "spaceId", Review.class, String.class);
+    }
+
+    @Override
+    public List<Review> search(String spaceId, ReviewSearchRequest request, int offset, int limit) {
+        // The equality on spaceId is what lets Mongo use the space-prefixed text index
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(request.getQ()))
+                .sortByScore();
+        query.addCriteria(Criteria.where("spaceId").is(spaceId));
+        if (request.getLiked() != null) {
+            query.addCriteria(Criteria.where("liked").is(request.getLiked()));
+        }
+        if (request.getMinRating() != null || request.getMaxRating() != null) {
+            Criteria rating = Criteria.where("rating");
+            if (request.getMinRating() != null) {
+                rating = rating.gte(request.getMinRating());
+            }
+            if (request.getMaxRating() != null) {
+                rating = rating.lte(request.getMaxRating());
+            }
+            query.addCriteria(rating);
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "id")) // Stable order among equal scores
+                .skip(offset)
+                .limit(limit);
+        return mongoTemplate.find(query, Review.class);
+    }
+
+    @Override
+    public ReviewSummary summarize(Collection<String> spaceIds, Instant since, int recentLimit) {
+        if (spaceIds.isEmpty()) {
+            return ReviewSummary.empty();
+        }
+
+        // One round trip: $match on the space index, then $facet into the three figures we need
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("spaceId").in(spaceIds)),
+                Aggregation.facet(
+                                Aggregation.group()
+                                        .count().as("total")
+                                        .sum(ConditionalOperators.when(Criteria.where("liked").is(true)).then(1).otherwise(0)).as("liked")
+                                        .avg("rating").as("averageRating"))
+                        .as("totals")
+                        .and(
+                                Aggregation.match(Criteria.where("createdAt").gte(since)),
+                                Aggregation.count().as("count"))
+                        .as("since")
+                        .and(
+                                Aggregation.sort(Sort.Direction.DESC, "createdAt"),
+                                Aggregation.limit(recentLimit))
+                        .as("recent"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Review.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return ReviewSummary.empty();
+        }
+
+        List<Document> totals = result.getList("totals", Document.class);
+        List<Document> sinceCount = result.getList("since", Document.class);
+        List<Document> recentDocs = result.getList("recent", Document.class);
+
+        Document t = totals.isEmpty() ? new Document() : totals.get(0);
+        List<Review> recent = new ArrayList<>(recentDocs.size());
+        for (Document doc : recentDocs) {
+            recent.add(mongoTemplate.getConverter().read(Review.class, doc));
+        }
+        return new ReviewSummary(
+                toLong(t.get("total")),
+                sinceCount.isEmpty() ? 0 : toLong(sinceCount.get(0).get("count")),
+                toLong(t.get("liked")),
+                t.get("averageRating") instanceof Number n ? n.doubleValue() : 0.0,
+                recent);
+    }
+
+    @Override
+    public SpaceStats computeStats(String spaceId) {
+        // Group by (rating, liked, month): at most 5 * 2 * months rows, folded into one document here
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("spaceId").is(spaceId)),
+                Aggregation.project("rating", "liked")
+                        .and(DateOperators.dateOf("createdAt").toString("%Y-%m")).as("month"),
+                Aggregation.group("rating", "liked", "month").count().as("count"));
+
+        SpaceStats stats = new SpaceStats(spaceId);
+        for (Document row : mongoTemplate.aggregate(aggregation, Review.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            long count = toLong(row.get("count"));
+            int rating = key.get("rating") instanceof Number n ? n.intValue() : 0;
+            String month = key.getString("month");
+
+            stats.setTotalCount(stats.getTotalCount() + count);
+            stats.setRatingSum(stats.getRatingSum() + rating * count);
+            if (Boolean.TRUE.equals(key.getBoolean("liked"))) {
+                stats.setLikedCount(stats.getLikedCount() + count);
+            }
+            stats.getRatingHistogram().merge(String.valueOf(rating), count, Long::sum);
+            if (month != null) {
+                stats.getMonthly().merge(month, count, Long::sum);
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public Review toggleLike(String reviewId, String ownerId) {
+        // Pipeline update: liked = !liked evaluated server-side, so concurrent toggles can't lose an update
+        AggregationUpdate flip = AggregationUpdate.update()
+                .set("liked").toValue(BooleanOperators.Not.not("liked"));
+        return mongoTemplate.findAndModify(ownedBy(reviewId, ownerId), flip,
+                FindAndModifyOptions.options().returnNew(true), Review.class);
+    }
+
+    @Override
+    public Review deleteOwned(String reviewId, String ownerId) {
+        return mongoTemplate.findAndRemove(ownedBy(reviewId, ownerId), Review.class);
+    }
+
+    private static Query ownedBy(String reviewId, String ownerId) {
+        return Query.query(Criteria.where("id").is(reviewId).and("ownerId").is(ownerId));
+    }
+
+    private static Query ownedAmong(Collection<String> ids, String ownerId) {
+        return Query.query(Criteria.where("id").in(ids).and("ownerId").is(ownerId));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.Review;
+
+import java.util.List;
+
+/**
+ * Aggregated figures over a set of spaces, as computed by ReviewRepositoryCustom.summarize.
+ */
+public record ReviewSummary(long total, long since, long liked, double averageRating, List<Review> recent) {
+
+    public static ReviewSummary empty() {
+        return new ReviewSummary(0, 0, 0, 0.0, List.of());
+    }
+}
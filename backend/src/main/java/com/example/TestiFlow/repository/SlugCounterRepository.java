@@ -0,0 +1,7 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SlugCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SlugCounterRepository extends MongoRepository<SlugCounter, String>, SlugCounterRepositoryCustom {
+}
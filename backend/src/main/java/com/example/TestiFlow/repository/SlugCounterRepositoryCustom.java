@@ -0,0 +1,15 @@
+package com.example.TestiFlow.repository;
+
+public interface SlugCounterRepositoryCustom {
+
+    /**
+     * Atomically increments the counter for base and returns the new value,
+     * or null if there is no counter for base yet.
+     */
+    Long incrementAndGet(String base);
+
+    /**
+     * Creates the counter or raises it to at least value, and returns the stored value.
+     */
+    long seedAtLeast(String base, long value);
+}
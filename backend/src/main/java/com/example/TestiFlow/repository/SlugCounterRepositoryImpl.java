@@ -0,0 +1,33 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SlugCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class SlugCounterRepositoryImpl implements SlugCounterRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Long incrementAndGet(String base) {
+        SlugCounter counter = mongoTemplate.findAndModify(byBase(base), new Update().inc("seq", 1),
+                FindAndModifyOptions.options().returnNew(true), SlugCounter.class);
+        return counter == null ? null : counter.getSeq();
+    }
+
+    @Override
+    public long seedAtLeast(String base, long value) {
+        SlugCounter counter = mongoTemplate.findAndModify(byBase(base), new Update().max("seq", value),
+                FindAndModifyOptions.options().returnNew(true).upsert(true), SlugCounter.class);
+        return counter.getSeq();
+    }
+
+    private static Query byBase(String base) {
+        return Query.query(Criteria.where("base").is(base));
+    }
+}
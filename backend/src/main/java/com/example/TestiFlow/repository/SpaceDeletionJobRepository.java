@@ -0,0 +1,11 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface SpaceDeletionJobRepository extends MongoRepository<SpaceDeletionJob, String>, SpaceDeletionJobRepositoryCustom {
+
+    Optional<SpaceDeletionJob> findBySpaceIdAndOwnerId(String spaceId, String ownerId);
+}
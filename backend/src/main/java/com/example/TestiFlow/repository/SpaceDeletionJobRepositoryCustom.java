@@ -0,0 +1,28 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceDeletionJob;
+
+import java.time.Instant;
+
+public interface SpaceDeletionJobRepositoryCustom {
+
+    /**
+     * Makes sure the space has an unfinished job: inserts a pending one, or puts a finished one back
+     * to pending (reviews can still arrive after a deletion, e.g. from the ingestion queue).
+     * Leaves a pending or running job alone. Returns whether anything changed.
+     */
+    boolean open(String spaceId, String ownerId, Instant now);
+
+    /**
+     * Atomically takes an unfinished job whose lease is free or expired, marks it running and
+     * leases it until leaseUntil. Oldest jobs first; null if there is nothing to do.
+     */
+    SpaceDeletionJob claimNext(Instant now, Instant leaseUntil);
+
+    /**
+     * Adds deleted to the job's progress and extends its lease.
+     */
+    void recordProgress(String spaceId, long deleted, Instant now, Instant leaseUntil);
+
+    void markDone(String spaceId, Instant now);
+}
@@ -0,0 +1,77 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+public class SpaceDeletionJobRepositoryImpl implements SpaceDeletionJobRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean open(String spaceId, String ownerId, Instant now) {
+        Query finished = Query.query(Criteria.where("spaceId").is(spaceId)
+                .and("status").is(SpaceDeletionJob.Status.DONE));
+        Update reopen = new Update()
+                .set("status", SpaceDeletionJob.Status.PENDING)
+                .unset("completedAt")
+                .set("updatedAt", now);
+        if (mongoTemplate.updateFirst(finished, reopen, SpaceDeletionJob.class).getModifiedCount() > 0) {
+            return true;
+        }
+        // Upsert with $setOnInsert so an unfinished job (and its progress) is left alone
+        Update insert = new Update()
+                .setOnInsert("ownerId", ownerId)
+                .setOnInsert("status", SpaceDeletionJob.Status.PENDING)
+                .setOnInsert("deletedReviews", 0L)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("updatedAt", now);
+        return mongoTemplate.upsert(byId(spaceId), insert, SpaceDeletionJob.class).getUpsertedId() != null;
+    }
+
+    @Override
+    public SpaceDeletionJob claimNext(Instant now, Instant leaseUntil) {
+        Query query = new Query(new Criteria().andOperator(
+                // $in rather than $ne DONE: two equality ranges that the status_created index can merge in createdAt order
+                Criteria.where("status").in(SpaceDeletionJob.Status.PENDING, SpaceDeletionJob.Status.RUNNING),
+                new Criteria().orOperator(
+                        Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now))))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        Update update = new Update()
+                .set("status", SpaceDeletionJob.Status.RUNNING)
+                .set("leaseUntil", leaseUntil)
+                .set("updatedAt", now);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), SpaceDeletionJob.class);
+    }
+
+    @Override
+    public void recordProgress(String spaceId, long deleted, Instant now, Instant leaseUntil) {
+        mongoTemplate.updateFirst(byId(spaceId),
+                new Update().inc("deletedReviews", deleted).set("leaseUntil", leaseUntil).set("updatedAt", now),
+                SpaceDeletionJob.class);
+    }
+
+    @Override
+    public void markDone(String spaceId, Instant now) {
+        mongoTemplate.updateFirst(byId(spaceId),
+                new Update().set("status", SpaceDeletionJob.Status.DONE)
+                        .unset("leaseUntil")
+                        .set("updatedAt", now)
+                        .set("completedAt", now),
+                SpaceDeletionJob.class);
+    }
+
+    private static Query byId(String spaceId) {
+        return Query.query(Criteria.where("spaceId").is(spaceId));
+    }
+}
@@ -2,12 +2,17 @@ package com.example.TestiFlow.repository;
 
 import com.example.TestiFlow.model.Space;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface SpaceRepository extends MongoRepository<Space, String> {
-    List<Space> findByUserId(String userId);
+    List<Space> findByOwnerId(String ownerId);
     Optional<Space> findBySlug(String slug);
-    Optional<Space> findByIdAndUserId(String id, String userId);
+    Optional<Space> findByIdAndOwnerId(String id, String ownerId);
+
+    // Anchored on the slug index: "base" and "base-<n>" only, slug field only
+    @Query(value = "{ 'slug': { '$regex': ?0 } }", fields = "{ 'slug': 1 }")
+    List<Space> findSlugsMatching(String anchoredRegex);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SpaceStatsRepository extends MongoRepository<SpaceStats, String>, SpaceStatsRepositoryCustom {
+}
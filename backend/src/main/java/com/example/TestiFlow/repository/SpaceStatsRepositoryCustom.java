@@ -0,0 +1,22 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceStats;
+
+import java.util.Map;
+
+public interface SpaceStatsRepositoryCustom {
+
+    /**
+     * Applies all deltas (field path -> amount) to the space's stats document in one atomic $inc,
+     * and bumps its version. If the document does not exist yet it is created by the same upsert,
+     * flagged rebuildNeeded, so no increment is ever dropped.
+     */
+    void increment(String spaceId, Map<String, Long> deltas);
+
+    /**
+     * Replaces the counters with rebuilt ones, but only if the stored version is still
+     * expectedVersion (null: only if there is no document yet). Returns false when an increment
+     * or another rebuild got there first; the caller then recomputes.
+     */
+    boolean replaceIfVersion(SpaceStats rebuilt, Long expectedVersion);
+}
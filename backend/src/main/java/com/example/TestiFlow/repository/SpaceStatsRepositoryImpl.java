@@ -0,0 +1,56 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.model.SpaceStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+
+public class SpaceStatsRepositoryImpl implements SpaceStatsRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String spaceId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Update update = new Update();
+        deltas.forEach(update::inc);
+        update.inc("version", 1).setOnInsert("rebuildNeeded", true);
+        mongoTemplate.upsert(Query.query(Criteria.where("spaceId").is(spaceId)), update, SpaceStats.class);
+    }
+
+    @Override
+    public boolean replaceIfVersion(SpaceStats rebuilt, Long expectedVersion) {
+        if (expectedVersion == null) {
+            try {
+                mongoTemplate.insert(rebuilt);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                return false; // Created by an increment or another rebuild meanwhile
+            }
+        }
+        // Documents written before versioning have no version field; they read as 0
+        Criteria version = expectedVersion == 0
+                ? Criteria.where("version").in(0L, null)
+                : Criteria.where("version").is(expectedVersion);
+        Update update = new Update()
+                .set("totalCount", rebuilt.getTotalCount())
+                .set("ratingSum", rebuilt.getRatingSum())
+                .set("likedCount", rebuilt.getLikedCount())
+                .set("ratingHistogram", rebuilt.getRatingHistogram())
+                .set("monthly", rebuilt.getMonthly())
+                .set("rebuiltAt", rebuilt.getRebuiltAt())
+                .set("rebuildNeeded", false)
+                .set("version", rebuilt.getVersion());
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("spaceId").is(rebuilt.getSpaceId()).andOperator(version)),
+                update, SpaceStats.class).getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,632 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Shared part of the in-memory repositories: documents by id in a ConcurrentHashMap, plus
+ * named secondary indexes (key -> ids) that the finder methods read instead of scanning.
+ *
+ * Stored documents are never mutated. Every write puts a fresh copy under one lock per
+ * repository, which also makes unique-index checks atomic with the write; reads take no lock
+ * and hand out copies, so callers can change what they get back just as they can with Mongo.
+ * Index lookups re-check the key on the document they find, so a read racing a write never
+ * returns a document that no longer matches.
+ *
+ * Query by example compares the probe's top-level properties; a nested object is compared as a
+ * whole with equals(). findBy's project() doesn't narrow what is read: every property is filled in.
+ */
+abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final BiConsumer<T, String> setId;
+    private final List<PropertyDescriptor> properties;
+
+    private final ConcurrentHashMap<String, T> documents = new ConcurrentHashMap<>();
+    private final Map<String, Index<T>> indexes = new LinkedHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private record Index<T>(Function<T, ?> key, boolean unique, ConcurrentHashMap<Object, Set<String>> ids) {
+    }
+
+    protected InMemoryRepository(Class<T> type, Function<T, String> idOf, BiConsumer<T, String> setId) {
+        this.type = type;
+        this.idOf = idOf;
+        this.setId = setId;
+        this.properties = Arrays.stream(BeanUtils.getPropertyDescriptors(type))
+                .filter(p -> p.getReadMethod() != null && p.getWriteMethod() != null)
+                .toList();
+    }
+
+    /**
+     * Declares a secondary index. Documents with a null key are not indexed (like a sparse index).
+     */
+    protected void index(String name, Function<T, ?> key, boolean unique) {
+        indexes.put(name, new Index<>(key, unique, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Called on a document about to be inserted for the first time, e.g. to set @CreatedDate.
+     */
+    protected void beforeInsert(T document) {
+    }
+
+    // ---- Helpers for the finder and custom methods ----
+
+    protected Optional<T> findOneBy(String index, Object key) {
+        return findAllBy(index, key).stream().findFirst();
+    }
+
+    protected List<T> findAllBy(String index, Object key) {
+        return storedBy(index, key).map(this::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * The stored documents under key, not copied: only for filtering and sorting before copy().
+     */
+    protected Stream<T> storedBy(String index, Object key) {
+        Index<T> idx = indexes.get(index);
+        Set<String> ids = idx.ids().get(key);
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return ids.stream()
+                .map(documents::get)
+                .filter(doc -> doc != null && key.equals(idx.key().apply(doc)));
+    }
+
+    /**
+     * Every stored document, not copied.
+     */
+    protected Stream<T> stored() {
+        return documents.values().stream();
+    }
+
+    protected T stored(String id) {
+        return id == null ? null : documents.get(id);
+    }
+
+    protected Set<Object> keysOf(String index) {
+        return indexes.get(index).ids().entrySet().stream()
+                .filter(e -> !e.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Applies change to a copy of the document if it exists and matches condition, atomically
+     * with respect to other writes. Returns the updated copy, or null if nothing matched.
+     */
+    protected T modify(String id, Predicate<T> condition, Consumer<T> change) {
+        return locked(() -> {
+            T current = stored(id);
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            T updated = copy(current);
+            change.accept(updated);
+            put(current, updated);
+            return copy(updated);
+        });
+    }
+
+    /**
+     * Like modify, but creates the document with create when it doesn't exist (an upsert).
+     */
+    protected T upsert(String id, Supplier<T> create, Consumer<T> change) {
+        return locked(() -> {
+            T current = stored(id);
+            T updated;
+            if (current == null) {
+                updated = create.get();
+                setId.accept(updated, id);
+                beforeInsert(updated);
+            } else {
+                updated = copy(current);
+            }
+            change.accept(updated);
+            put(current, updated);
+            return copy(updated);
+        });
+    }
+
+    /**
+     * Removes the document if it exists and matches condition. Returns it, or null.
+     */
+    protected T removeIf(String id, Predicate<T> condition) {
+        return locked(() -> {
+            T current = stored(id);
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            remove(current);
+            return copy(current);
+        });
+    }
+
+    protected <R> R locked(Supplier<R> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * A copy whose collections are copied too, so neither side can reach into the other's state.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected T copy(T source) {
+        T target = BeanUtils.instantiateClass(type);
+        try {
+            for (PropertyDescriptor property : properties) {
+                Object value = property.getReadMethod().invoke(source);
+                if (value instanceof List list) {
+                    value = new ArrayList<>(list);
+                } else if (value instanceof Set set) {
+                    value = new HashSet<>(set);
+                } else if (value instanceof Map map) {
+                    value = new HashMap<>(map);
+                }
+                property.getWriteMethod().invoke(target, value);
+            }
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Could not copy " + type.getSimpleName(), ex);
+        }
+        return target;
+    }
+
+    // ---- Writes (callers hold writeLock) ----
+
+    private void put(T current, T updated) {
+        String id = idOf.apply(updated);
+        for (Map.Entry<String, Index<T>> entry : indexes.entrySet()) {
+            Index<T> idx = entry.getValue();
+            Object key = idx.key().apply(updated);
+            if (!idx.unique() || key == null) {
+                continue;
+            }
+            Set<String> holders = idx.ids().get(key);
+            if (holders != null && holders.stream().anyMatch(other -> !other.equals(id))) {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + type.getSimpleName()
+                        + " index " + entry.getKey() + " dup key " + key);
+            }
+        }
+        documents.put(id, updated);
+        for (Index<T> idx : indexes.values()) {
+            Object oldKey = current == null ? null : idx.key().apply(current);
+            Object newKey = idx.key().apply(updated);
+            if (Objects.equals(oldKey, newKey)) {
+                continue;
+            }
+            if (newKey != null) {
+                idx.ids().computeIfAbsent(newKey, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            if (oldKey != null) {
+                unindex(idx, oldKey, id);
+            }
+        }
+    }
+
+    private void remove(T current) {
+        String id = idOf.apply(current);
+        documents.remove(id);
+        for (Index<T> idx : indexes.values()) {
+            Object key = idx.key().apply(current);
+            if (key != null) {
+                unindex(idx, key, id);
+            }
+        }
+    }
+
+    private static <T> void unindex(Index<T> idx, Object key, String id) {
+        idx.ids().computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private <S extends T> S store(S entity, boolean insertOnly) {
+        return locked(() -> {
+            String id = idOf.apply(entity);
+            if (id == null) {
+                id = new ObjectId().toHexString(); // Same ids Mongo would assign
+                setId.accept(entity, id);
+            }
+            T current = documents.get(id);
+            if (current != null && insertOnly) {
+                throw new DuplicateKeyException("E11000 duplicate key error: " + type.getSimpleName() + " _id " + id);
+            }
+            if (current == null) {
+                beforeInsert(entity); // On the caller's object, as Mongo's auditing does
+            }
+            put(current, copy(entity));
+            return entity;
+        });
+    }
+
+    // ---- MongoRepository ----
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return store(entity, false);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        return store(entity, true);
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        // Ordered like insertMany: stops at the first duplicate, earlier documents stay inserted
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(stored(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return stored(id) != null;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return stored().map(this::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .distinct()
+                .map(this::stored)
+                .filter(Objects::nonNull)
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        removeIf(id, doc -> true);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        locked(() -> {
+            documents.clear();
+            indexes.values().forEach(idx -> idx.ids().clear());
+            return null;
+        });
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return stored().sorted(comparatorFor(sort)).map(this::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = stored().sorted(comparatorFor(pageable.getSort())).toList();
+        Page<T> page = page(sorted, pageable);
+        return page.map(this::copy);
+    }
+
+    // Property order with nulls first, as Mongo sorts missing fields
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<T> comparatorFor(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    doc -> (Comparable) new BeanWrapperImpl(doc).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    // ---- Query by example: equality on the probe's top-level properties, per its ExampleMatcher ----
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> matches = byExample(example, Sort.unsorted());
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return byExample(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return byExample(example, sort);
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(byExample(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return stored().filter(matcherFor(example)).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return stored().anyMatch(matcherFor(example));
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        @SuppressWarnings("unchecked")
+        ExampleQuery<S, S> query = new ExampleQuery<>(example, Sort.unsorted(), 0, doc -> (S) doc);
+        return queryFunction.apply(query);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends T> List<S> byExample(Example<S> example, Sort sort) {
+        return stored().filter(matcherFor(example))
+                .sorted(comparatorFor(sort))
+                .map(doc -> (S) copy(doc))
+                .collect(Collectors.toList());
+    }
+
+    private static <S> Page<S> page(List<S> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        List<S> content = all.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, all.size());
+    }
+
+    /**
+     * Mongo's reading of an example: every property of the probe that isn't ignored (and isn't
+     * null, unless nulls are included) must match, or any one of them with a matchingAny matcher.
+     * Strings follow the matcher's string matching and case rules; everything else is equals().
+     */
+    private <S extends T> Predicate<T> matcherFor(Example<S> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        BeanWrapperImpl probe = new BeanWrapperImpl(example.getProbe());
+        List<Predicate<T>> conditions = new ArrayList<>();
+        for (PropertyDescriptor property : properties) {
+            String path = property.getName();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+            ExampleMatcher.PropertySpecifier specifier = matcher.getPropertySpecifiers().getForPath(path);
+            Object expected = probe.getPropertyValue(path);
+            if (specifier != null) {
+                expected = specifier.transformValue(Optional.ofNullable(expected)).orElse(null);
+            }
+            if (expected == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            ExampleMatcher.StringMatcher stringMatcher = specifier != null && specifier.getStringMatcher() != null
+                    ? specifier.getStringMatcher() : matcher.getDefaultStringMatcher();
+            boolean ignoreCase = specifier != null && specifier.getIgnoreCase() != null
+                    ? specifier.getIgnoreCase() : matcher.isIgnoreCaseEnabled();
+            Object value = expected;
+            conditions.add(doc -> matches(new BeanWrapperImpl(doc).getPropertyValue(path), value, stringMatcher, ignoreCase));
+        }
+        if (conditions.isEmpty()) {
+            return doc -> true;
+        }
+        return matcher.isAllMatching()
+                ? doc -> conditions.stream().allMatch(condition -> condition.test(doc))
+                : doc -> conditions.stream().anyMatch(condition -> condition.test(doc));
+    }
+
+    private static boolean matches(Object actual, Object expected, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        if (!(expected instanceof String wanted) || !(actual instanceof String value)) {
+            return Objects.equals(actual, expected);
+        }
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(wanted, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0).matcher(value).find();
+        }
+        if (ignoreCase) {
+            wanted = wanted.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (stringMatcher) {
+            case STARTING -> value.startsWith(wanted);
+            case ENDING -> value.endsWith(wanted);
+            case CONTAINING -> value.contains(wanted);
+            default -> value.equals(wanted);
+        };
+    }
+
+    /**
+     * Maps a document to a findBy result type: the document itself when the type allows it, a
+     * proxy for an interface projection, or a DTO filled from the document's properties through
+     * its constructor's parameter names, or through its setters when it has a no-arg constructor.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> Function<T, R> projector(Class<R> resultType) {
+        if (resultType.isAssignableFrom(type)) {
+            return doc -> (R) doc;
+        }
+        if (resultType.isInterface()) {
+            return doc -> PROJECTIONS.createProjection(resultType, doc);
+        }
+        Constructor<R> constructor = BeanUtils.getResolvableConstructor(resultType);
+        if (constructor.getParameterCount() == 0) {
+            return doc -> {
+                R dto = BeanUtils.instantiateClass(constructor);
+                BeanUtils.copyProperties(doc, dto);
+                return dto;
+            };
+        }
+        String[] names = BeanUtils.getParameterNames(constructor);
+        return doc -> {
+            BeanWrapperImpl source = new BeanWrapperImpl(doc);
+            Object[] args = Arrays.stream(names)
+                    .map(name -> source.isReadableProperty(name) ? source.getPropertyValue(name) : null)
+                    .toArray();
+            return BeanUtils.instantiateClass(constructor, args);
+        };
+    }
+
+    /**
+     * findBy's fluent query over the example's matches, mapped to the result type chosen with
+     * as(). project() doesn't narrow what is read: every property is filled in, which callers
+     * that list properties must tolerate anyway.
+     */
+    private final class ExampleQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+        private final Example<S> example;
+        private final Sort sort;
+        private final int limit; // 0: no limit
+        private final Function<T, R> projector;
+
+        ExampleQuery(Example<S> example, Sort sort, int limit, Function<T, R> projector) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.projector = projector;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit, projector);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            return new ExampleQuery<>(example, sort, limit, projector);
+        }
+
+        @Override
+        public <N> FluentQuery.FetchableFluentQuery<N> as(Class<N> resultType) {
+            return new ExampleQuery<>(example, sort, limit, projector(resultType));
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> matches = all();
+            if (matches.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, matches.size());
+            }
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> matches = all();
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            return byExample(example, sort).stream()
+                    .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                    .map(projector)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Sort order = pageable.getSort().isSorted() ? pageable.getSort() : sort;
+            return InMemoryRepository.page(byExample(example, order), pageable).map(projector);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return InMemoryRepository.this.count(example);
+        }
+
+        @Override
+        public boolean exists() {
+            return InMemoryRepository.this.exists(example);
+        }
+    }
+}
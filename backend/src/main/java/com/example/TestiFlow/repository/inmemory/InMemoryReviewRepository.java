@@ -0,0 +1,264 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.dto.ReviewPageRequest;
+import com.example.TestiFlow.dto.ReviewSearchRequest;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.SpaceStats;
+import com.example.TestiFlow.repository.ReviewCursor;
+import com.example.TestiFlow.repository.ReviewRepository;
+import com.example.TestiFlow.repository.ReviewSummary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reviews are indexed by spaceId only; everything finer (liked, rating, date window, keyset
+ * position, text match) is filtered over one space's reviews, which is what the space-prefixed
+ * compound indexes narrow Mongo down to as well.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryReviewRepository extends InMemoryRepository<Review> implements ReviewRepository {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM").withZone(ZoneOffset.UTC);
+
+    private static final Comparator<Review> OLDEST_FIRST = Comparator
+            .comparing(Review::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Review::getId);
+
+    public InMemoryReviewRepository() {
+        super(Review.class, Review::getId, Review::setId);
+        index("spaceId", Review::getSpaceId, false);
+    }
+
+    @Override
+    protected void beforeInsert(Review review) {
+        if (review.getCreatedAt() == null) {
+            review.setCreatedAt(Instant.now()); // @CreatedDate
+        }
+        // A BSON date holds milliseconds, and cursors carry no more than that
+        review.setCreatedAt(review.getCreatedAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Override
+    public List<Review> findBySpaceId(String spaceId) {
+        return storedBy("spaceId", spaceId)
+                .sorted(Comparator.comparing(Review::getId)) // Insertion order, as a collection scan returns them
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Review> findBySpaceIdAndLikedTrue(String spaceId) {
+        return storedBy("spaceId", spaceId)
+                .filter(Review::isLiked)
+                .sorted(Comparator.comparing(Review::getId))
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Review> findPage(String spaceId, ReviewPageRequest request, ReviewCursor after, int limit) {
+        Comparator<Review> order = request.isOldestFirst() ? OLDEST_FIRST : OLDEST_FIRST.reversed();
+        Stream<Review> reviews = storedBy("spaceId", spaceId).filter(matches(request.getLiked(),
+                request.getMinRating(), request.getMaxRating()));
+        if (request.getFrom() != null) {
+            reviews = reviews.filter(r -> r.getCreatedAt() != null && !r.getCreatedAt().isBefore(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            reviews = reviews.filter(r -> r.getCreatedAt() != null && r.getCreatedAt().isBefore(request.getTo()));
+        }
+        if (after != null) {
+            // Strictly past the cursor in the listing's own order
+            Review position = new Review();
+            position.setCreatedAt(after.createdAt());
+            position.setId(after.id());
+            reviews = reviews.filter(r -> order.compare(r, position) > 0);
+        }
+        return reviews.sorted(order).limit(limit).map(this::copy).collect(Collectors.toList());
+    }
+
+    /**
+     * A plain term match standing in for $text: each query word found in the text or author name
+     * counts once towards the score. No stemming, stop words, phrases or negation.
+     */
+    @Override
+    public List<Review> search(String spaceId, ReviewSearchRequest request, int offset, int limit) {
+        Set<String> terms = words(request.getQ());
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        record Scored(Review review, int score) {
+        }
+        return storedBy("spaceId", spaceId)
+                .filter(matches(request.getLiked(), request.getMinRating(), request.getMaxRating()))
+                .map(r -> {
+                    Set<String> found = words(r.getText());
+                    found.addAll(words(r.getAuthorName()));
+                    found.retainAll(terms);
+                    return new Scored(r, found.size());
+                })
+                .filter(s -> s.score() > 0)
+                .sorted(Comparator.comparingInt(Scored::score).reversed()
+                        .thenComparing(s -> s.review().getId(), Comparator.reverseOrder()))
+                .skip(offset)
+                .limit(limit)
+                .map(s -> copy(s.review()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ReviewSummary summarize(Collection<String> spaceIds, Instant since, int recentLimit) {
+        List<Review> reviews = spaceIds.stream()
+                .distinct()
+                .flatMap(spaceId -> storedBy("spaceId", spaceId))
+                .toList();
+        if (reviews.isEmpty()) {
+            return ReviewSummary.empty();
+        }
+        long liked = reviews.stream().filter(Review::isLiked).count();
+        long sinceCount = reviews.stream()
+                .filter(r -> r.getCreatedAt() != null && !r.getCreatedAt().isBefore(since))
+                .count();
+        double averageRating = reviews.stream().mapToInt(Review::getRating).average().orElse(0.0);
+        List<Review> recent = reviews.stream()
+                .sorted(Comparator.comparing(Review::getCreatedAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder())).reversed())
+                .limit(recentLimit)
+                .map(this::copy)
+                .collect(Collectors.toList());
+        return new ReviewSummary(reviews.size(), sinceCount, liked, averageRating, recent);
+    }
+
+    @Override
+    public SpaceStats computeStats(String spaceId) {
+        SpaceStats stats = new SpaceStats(spaceId);
+        storedBy("spaceId", spaceId).forEach(review -> {
+            stats.setTotalCount(stats.getTotalCount() + 1);
+            stats.setRatingSum(stats.getRatingSum() + review.getRating());
+            if (review.isLiked()) {
+                stats.setLikedCount(stats.getLikedCount() + 1);
+            }
+            stats.getRatingHistogram().merge(String.valueOf(review.getRating()), 1L, Long::sum);
+            if (review.getCreatedAt() != null) {
+                stats.getMonthly().merge(MONTH.format(review.getCreatedAt()), 1L, Long::sum);
+            }
+        });
+        return stats;
+    }
+
+    @Override
+    public Review toggleLike(String reviewId, String ownerId) {
+        return modify(reviewId, ownedBy(ownerId), review -> review.setLiked(!review.isLiked()));
+    }
+
+    @Override
+    public Review deleteOwned(String reviewId, String ownerId) {
+        return removeIf(reviewId, ownedBy(ownerId));
+    }
+
+    @Override
+    public List<Review> findOwned(Collection<String> ids, String ownerId) {
+        return ids.stream()
+                .distinct()
+                .map(this::stored)
+                .filter(Objects::nonNull)
+                .filter(ownedBy(ownerId))
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Review> setLikedOwned(Collection<String> ids, String ownerId, boolean liked) {
+        Predicate<Review> needsChange = ownedBy(ownerId).and(review -> review.isLiked() != liked);
+        return locked(() -> ids.stream()
+                .distinct()
+                .map(id -> modify(id, needsChange, review -> review.setLiked(liked)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Review> deleteAllOwned(Collection<String> ids, String ownerId) {
+        return locked(() -> ids.stream()
+                .distinct()
+                .map(id -> removeIf(id, ownedBy(ownerId)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Review> insertAssigned(List<Review> reviews) {
+        List<Review> written = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            try {
+                insert(review);
+            } catch (DuplicateKeyException ex) {
+                // Already stored by an earlier attempt
+            }
+            written.add(review);
+        }
+        return written;
+    }
+
+    // A snapshot taken up front: later writes don't show up in the stream, much like a cursor's
+    @Override
+    public Stream<Review> streamBySpaceId(String spaceId, int batchSize) {
+        return storedBy("spaceId", spaceId)
+                .sorted(OLDEST_FIRST)
+                .toList()
+                .stream()
+                .map(this::copy);
+    }
+
+    @Override
+    public long deleteBatchBySpaceId(String spaceId, int batchSize) {
+        return locked(() -> storedBy("spaceId", spaceId)
+                .limit(batchSize)
+                .map(Review::getId)
+                .toList()
+                .stream()
+                .filter(id -> removeIf(id, review -> true) != null)
+                .count());
+    }
+
+    @Override
+    public List<String> findDistinctSpaceIds() {
+        return keysOf("spaceId").stream().map(String.class::cast).collect(Collectors.toList());
+    }
+
+    private static Predicate<Review> ownedBy(String ownerId) {
+        return review -> ownerId.equals(review.getOwnerId());
+    }
+
+    private static Predicate<Review> matches(Boolean liked, Integer minRating, Integer maxRating) {
+        return review -> (liked == null || review.isLiked() == liked)
+                && (minRating == null || review.getRating() >= minRating)
+                && (maxRating == null || review.getRating() <= maxRating);
+    }
+
+    private static Set<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return new HashSet<>();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.SlugCounter;
+import com.example.TestiFlow.repository.SlugCounterRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySlugCounterRepository extends InMemoryRepository<SlugCounter> implements SlugCounterRepository {
+
+    public InMemorySlugCounterRepository() {
+        super(SlugCounter.class, SlugCounter::getBase, SlugCounter::setBase);
+    }
+
+    @Override
+    public Long incrementAndGet(String base) {
+        SlugCounter counter = modify(base, c -> true, c -> c.setSeq(c.getSeq() + 1));
+        return counter == null ? null : counter.getSeq();
+    }
+
+    @Override
+    public long seedAtLeast(String base, long value) {
+        return upsert(base, SlugCounter::new, c -> c.setSeq(Math.max(c.getSeq(), value))).getSeq();
+    }
+}
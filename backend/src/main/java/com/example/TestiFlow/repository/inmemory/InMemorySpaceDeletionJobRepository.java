@@ -0,0 +1,74 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import com.example.TestiFlow.repository.SpaceDeletionJobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySpaceDeletionJobRepository extends InMemoryRepository<SpaceDeletionJob>
+        implements SpaceDeletionJobRepository {
+
+    public InMemorySpaceDeletionJobRepository() {
+        super(SpaceDeletionJob.class, SpaceDeletionJob::getSpaceId, SpaceDeletionJob::setSpaceId);
+    }
+
+    @Override
+    public Optional<SpaceDeletionJob> findBySpaceIdAndOwnerId(String spaceId, String ownerId) {
+        return findById(spaceId).filter(job -> ownerId.equals(job.getOwnerId()));
+    }
+
+    @Override
+    public boolean open(String spaceId, String ownerId, Instant now) {
+        return locked(() -> {
+            SpaceDeletionJob current = stored(spaceId);
+            if (current == null) {
+                upsert(spaceId, () -> new SpaceDeletionJob(spaceId, ownerId, now), job -> { });
+                return true;
+            }
+            return modify(spaceId, job -> job.getStatus() == SpaceDeletionJob.Status.DONE, job -> {
+                job.setStatus(SpaceDeletionJob.Status.PENDING);
+                job.setCompletedAt(null);
+                job.setUpdatedAt(now);
+            }) != null;
+        });
+    }
+
+    @Override
+    public SpaceDeletionJob claimNext(Instant now, Instant leaseUntil) {
+        return locked(() -> stored()
+                .filter(job -> job.getStatus() != SpaceDeletionJob.Status.DONE)
+                .filter(job -> job.getLeaseUntil() == null || job.getLeaseUntil().isBefore(now))
+                .min(Comparator.comparing(SpaceDeletionJob::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(job -> modify(job.getSpaceId(), j -> true, j -> {
+                    j.setStatus(SpaceDeletionJob.Status.RUNNING);
+                    j.setLeaseUntil(leaseUntil);
+                    j.setUpdatedAt(now);
+                }))
+                .orElse(null));
+    }
+
+    @Override
+    public void recordProgress(String spaceId, long deleted, Instant now, Instant leaseUntil) {
+        modify(spaceId, job -> true, job -> {
+            job.setDeletedReviews(job.getDeletedReviews() + deleted);
+            job.setLeaseUntil(leaseUntil);
+            job.setUpdatedAt(now);
+        });
+    }
+
+    @Override
+    public void markDone(String spaceId, Instant now) {
+        modify(spaceId, job -> true, job -> {
+            job.setStatus(SpaceDeletionJob.Status.DONE);
+            job.setLeaseUntil(null);
+            job.setUpdatedAt(now);
+            job.setCompletedAt(now);
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.repository.SpaceRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySpaceRepository extends InMemoryRepository<Space> implements SpaceRepository {
+
+    public InMemorySpaceRepository() {
+        super(Space.class, Space::getId, Space::setId);
+        index("ownerId", Space::getOwnerId, false);
+        index("slug", Space::getSlug, true); // Unique index "slug" in MongoIndexes
+    }
+
+    @Override
+    public List<Space> findByOwnerId(String ownerId) {
+        return findAllBy("ownerId", ownerId);
+    }
+
+    @Override
+    public Optional<Space> findBySlug(String slug) {
+        return findOneBy("slug", slug);
+    }
+
+    @Override
+    public Optional<Space> findByIdAndOwnerId(String id, String ownerId) {
+        return findById(id).filter(space -> ownerId.equals(space.getOwnerId()));
+    }
+
+    // Walks the slug index keys rather than the documents, like the anchored regex does in Mongo
+    @Override
+    public List<Space> findSlugsMatching(String anchoredRegex) {
+        Pattern pattern = Pattern.compile(anchoredRegex);
+        return keysOf("slug").stream()
+                .map(String.class::cast)
+                .filter(slug -> pattern.matcher(slug).find())
+                .map(this::findBySlug)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+}
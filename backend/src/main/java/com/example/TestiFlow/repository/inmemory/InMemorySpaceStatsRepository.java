@@ -0,0 +1,69 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.SpaceStats;
+import com.example.TestiFlow.repository.SpaceStatsRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySpaceStatsRepository extends InMemoryRepository<SpaceStats> implements SpaceStatsRepository {
+
+    public InMemorySpaceStatsRepository() {
+        super(SpaceStats.class, SpaceStats::getSpaceId, SpaceStats::setSpaceId);
+    }
+
+    @Override
+    public void increment(String spaceId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        upsert(spaceId,
+                () -> {
+                    SpaceStats created = new SpaceStats();
+                    created.setRebuildNeeded(true);
+                    return created;
+                },
+                stats -> {
+                    deltas.forEach((field, delta) -> apply(stats, field, delta));
+                    stats.setVersion(stats.getVersion() + 1);
+                });
+    }
+
+    @Override
+    public boolean replaceIfVersion(SpaceStats rebuilt, Long expectedVersion) {
+        return locked(() -> {
+            SpaceStats current = stored(rebuilt.getSpaceId());
+            boolean unchanged = expectedVersion == null
+                    ? current == null
+                    : current != null && current.getVersion() == expectedVersion;
+            if (unchanged) {
+                save(rebuilt);
+            }
+            return unchanged;
+        });
+    }
+
+    // The field paths SpaceStatsService builds: the three totals and "<map>.<key>" for the two maps
+    private static void apply(SpaceStats stats, String field, long delta) {
+        int dot = field.indexOf('.');
+        if (dot > 0) {
+            String map = field.substring(0, dot);
+            String key = field.substring(dot + 1);
+            switch (map) {
+                case "ratingHistogram" -> stats.getRatingHistogram().merge(key, delta, Long::sum);
+                case "monthly" -> stats.getMonthly().merge(key, delta, Long::sum);
+                default -> throw new IllegalArgumentException("Unknown SpaceStats field: " + field);
+            }
+            return;
+        }
+        switch (field) {
+            case "totalCount" -> stats.setTotalCount(stats.getTotalCount() + delta);
+            case "ratingSum" -> stats.setRatingSum(stats.getRatingSum() + delta);
+            case "likedCount" -> stats.setLikedCount(stats.getLikedCount() + delta);
+            default -> throw new IllegalArgumentException("Unknown SpaceStats field: " + field);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.User;
+import com.example.TestiFlow.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    public InMemoryUserRepository() {
+        super(User.class, User::getId, User::setId);
+        index("email", User::getEmail, true); // Unique index "email" in MongoIndexes
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findOneBy("email", email);
+    }
+
+    @Override
+    public Boolean existsByEmail(String email) {
+        return storedBy("email", email).findAny().isPresent();
+    }
+}
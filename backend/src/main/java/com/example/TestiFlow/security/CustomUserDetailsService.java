@@ -4,6 +4,7 @@ import com.example.TestiFlow.model.User;
 import com.example.TestiFlow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -23,4 +24,16 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return new org.springframework.security.core.userdetails.User(user.getEmail(), user.getPassword(), new ArrayList<>());
     }
-}
\ No newline at end of file
+
+    // Called by the authentication provider after a successful login whose stored hash was made
+    // with a lower BCrypt strength than the configured one; the new hash is already computed
+    @Override
+    public UserDetails updatePassword(UserDetails details, String newPassword) {
+        User user = userRepository.findByEmail(details.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + details.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+
+        return new org.springframework.security.core.userdetails.User(user.getEmail(), newPassword, details.getAuthorities());
+    }
+}
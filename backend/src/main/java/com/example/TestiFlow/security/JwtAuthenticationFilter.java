@@ -1,5 +1,7 @@
 package com.example.TestiFlow.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +16,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -22,7 +25,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private PrincipalCache principalCache;
+
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public JwtAuthenticationFilter(MeterRegistry meterRegistry) {
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("testiflow.auth.jwt.verify")
+                .description("JWT signature and expiry check")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,11 +49,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.getEmailFromToken(jwt) != null) {
-                String email = jwtUtil.getEmailFromToken(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+            // Verify the signature once and reuse the resulting claims for the rest of the request
+            JwtUtil.VerifiedToken token = StringUtils.hasText(jwt) ? verify(jwt) : null;
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (token != null && token.email() != null) {
+                // Served from memory after the first request; only a miss goes to Mongo
+                UserDetails userDetails = principalCache.getPrincipal(token.email());
+
+                if (jwtUtil.validateToken(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -50,6 +71,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Timed including cache hits, so the histogram shows what verification costs a request
+    private JwtUtil.VerifiedToken verify(String jwt) {
+        long start = System.nanoTime();
+        try {
+            JwtUtil.VerifiedToken token = jwtUtil.verifyToken(jwt);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return token;
+        } catch (RuntimeException ex) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
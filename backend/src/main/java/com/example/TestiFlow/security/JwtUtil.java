@@ -1,17 +1,25 @@
 package com.example.TestiFlow.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -22,9 +30,33 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private SecretKey getSigningKey() {
+    // Upper bound on remembered tokens; each entry is only a hash, an email and an expiry
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Built once at startup instead of on every parse
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // SHA-256(token) -> claims we already verified, kept until the token's own exp
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * The verified parts of a token that callers actually need.
+     */
+    public record VerifiedToken(String email, Date expiration) {
+        boolean isExpired() {
+            return expiration.before(new Date());
+        }
+    }
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Base64.getDecoder().decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(String email) {
@@ -32,33 +64,65 @@ public class JwtUtil {
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Parses and verifies the token at most once. Repeated calls with the same token
+     * are answered from the verified-token cache until the token expires.
+     * Throws a JwtException if the token is malformed, badly signed or expired.
+     */
+    public VerifiedToken verifyToken(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.remove(key);
+        }
+
+        // parseClaimsJws checks the signature and rejects expired tokens
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration());
+        if (verified.email() != null && verified.expiration() != null) {
+            remember(key, verified);
+        }
+        return verified;
+    }
+
     public String getEmailFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verifyToken(token).email();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String email = getEmailFromToken(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verifyToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return getExpirationDateFromToken(token).before(new Date());
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.email().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
-    private Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    private void remember(String key, VerifiedToken verified) {
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            // Drop whatever has expired first, then fall back to dropping arbitrary entries
+            verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+            Iterator<String> it = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= verifiedCacheMaxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        verifiedTokens.put(key, verified);
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
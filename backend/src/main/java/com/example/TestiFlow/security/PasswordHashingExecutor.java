@@ -0,0 +1,90 @@
+package com.example.TestiFlow.security;
+
+import com.example.TestiFlow.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A small fixed pool for the work that runs BCrypt (login and sign-up), so a burst of logins
+ * queues up here instead of holding request threads the rest of the API needs.
+ *
+ * The queue is bounded: once it is full, new tasks are rejected straight away with 503 rather
+ * than waiting behind hashes whose clients may already have given up.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    public record Stats(int threads, int active, int queued, long completed, long rejected) {
+    }
+
+    public PasswordHashingExecutor(@Value("${testiflow.auth.hashing.threads:0}") int threads,
+                                   @Value("${testiflow.auth.hashing.queue-capacity:100}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        // BCrypt is pure CPU: more threads than cores only adds context switches
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("testiflow.auth.hashing.queue.wait")
+                .description("Time a login or sign-up waited for a password hashing thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the hashing pool. Throws ServiceBusyException if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(task.get());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("Too many sign-ins in progress, please retry shortly", 1);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public Stats getStats() {
+        return new Stats(executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                executor.getCompletedTaskCount(), rejected.get());
+    }
+}
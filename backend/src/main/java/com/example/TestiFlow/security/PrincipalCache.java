@@ -0,0 +1,70 @@
+package com.example.TestiFlow.security;
+
+import com.example.TestiFlow.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caches the authenticated principal per email so the JWT filter does not
+ * hit UserRepository.findByEmail on every request.
+ * Only the username and authorities are kept; the password hash never enters the cache.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, UserDetails> cache;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Returns the principal for the email, loading it through CustomUserDetailsService on a miss.
+     * Throws UsernameNotFoundException if the user does not exist (misses are not cached).
+     */
+    public UserDetails getPrincipal(String email) {
+        return cache.getOrLoad(email, this::load);
+    }
+
+    private UserDetails load(String email) {
+        UserDetails loaded = customUserDetailsService.loadUserByUsername(email);
+        return User.withUsername(loaded.getUsername())
+                .password("")
+                .authorities(loaded.getAuthorities())
+                .build();
+    }
+
+    // Call whenever a user is created, changed or deleted
+    public void evict(String email) {
+        cache.evict(email);
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    public double hitRate() {
+        return cache.hitRate();
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.TestiFlow.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttling for the unauthenticated endpoints: POST /api/reviews/{slug}
+ * and GET /api/embed/{spaceId}. Each request has to pass a per-client bucket (by remote
+ * address) and then a per-space bucket (by slug or space id); otherwise it gets 429
+ * with Retry-After.
+ *
+ * Every bucket is a single AtomicLong updated with compare-and-set (the GCRA form of a
+ * token bucket), so there are no locks on the request path. Buckets that have refilled
+ * completely carry no state worth keeping and are swept periodically.
+ *
+ * Behind a reverse proxy, set server.forward-headers-strategy so getRemoteAddr() is the
+ * real client rather than the proxy.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String SUBMIT_PREFIX = "/api/reviews/";
+    private static final String EMBED_PREFIX = "/api/embed/";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${testiflow.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${testiflow.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${testiflow.rate-limit.submit.client.per-minute:10}")
+    private int submitClientPerMinute;
+
+    @Value("${testiflow.rate-limit.submit.client.burst:5}")
+    private int submitClientBurst;
+
+    @Value("${testiflow.rate-limit.submit.space.per-minute:120}")
+    private int submitSpacePerMinute;
+
+    @Value("${testiflow.rate-limit.submit.space.burst:30}")
+    private int submitSpaceBurst;
+
+    @Value("${testiflow.rate-limit.embed.client.per-minute:120}")
+    private int embedClientPerMinute;
+
+    @Value("${testiflow.rate-limit.embed.client.burst:60}")
+    private int embedClientBurst;
+
+    @Value("${testiflow.rate-limit.embed.space.per-minute:3000}")
+    private int embedSpacePerMinute;
+
+    @Value("${testiflow.rate-limit.embed.space.burst:600}")
+    private int embedSpaceBurst;
+
+    private Limit submitClient;
+    private Limit submitSpace;
+    private Limit embedClient;
+    private Limit embedSpace;
+
+    // Replaced in tests to step time forward without sleeping
+    LongSupplier nanoClock = System::nanoTime;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastInlineSweep = new AtomicLong(System.nanoTime());
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    public record Stats(int buckets, long allowed, long rejected) {
+    }
+
+    /**
+     * A rate as nanoseconds per request plus how far ahead of schedule a burst may run.
+     */
+    private record Limit(long intervalNanos, long toleranceNanos) {
+        static Limit of(int perMinute, int burst) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            return new Limit(interval, interval * (Math.max(burst, 1) - 1));
+        }
+    }
+
+    /**
+     * Holds the "theoretical arrival time": the instant at which the bucket would be full again.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * Takes one token. Returns 0 if allowed, otherwise the nanoseconds until a token is available.
+         */
+        long tryAcquire(Limit limit, long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = Math.max(current, now);
+                long wait = base - limit.toleranceNanos() - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, base + limit.intervalNanos())) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        submitClient = Limit.of(submitClientPerMinute, submitClientBurst);
+        submitSpace = Limit.of(submitSpacePerMinute, submitSpaceBurst);
+        embedClient = Limit.of(embedClientPerMinute, embedClientBurst);
+        embedSpace = Limit.of(embedSpacePerMinute, embedSpaceBurst);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || targetOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String target = targetOf(request);
+        boolean submit = "POST".equals(request.getMethod());
+        String kind = submit ? "submit" : "embed";
+        long now = nanoClock.getAsLong();
+
+        // Client first, so one noisy client can't spend the space's budget for everyone else
+        long wait = acquire(kind + ":ip:" + request.getRemoteAddr(), submit ? submitClient : embedClient, now);
+        if (wait == 0) {
+            wait = acquire(kind + ":space:" + target, submit ? submitSpace : embedSpace, now);
+        }
+        if (wait > 0) {
+            rejected.increment();
+            reject(response, wait);
+            return;
+        }
+        allowed.increment();
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The slug or space id for a rate-limited request, or null if the request isn't one.
+     */
+    private static String targetOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String prefix;
+        if ("POST".equals(request.getMethod()) && path.startsWith(SUBMIT_PREFIX)) {
+            prefix = SUBMIT_PREFIX;
+        } else if ("GET".equals(request.getMethod()) && path.startsWith(EMBED_PREFIX)) {
+            prefix = EMBED_PREFIX;
+        } else {
+            return null;
+        }
+        String rest = path.substring(prefix.length());
+        int slash = rest.indexOf('/');
+        String target = slash < 0 ? rest : rest.substring(0, slash);
+        return target.isEmpty() ? null : target;
+    }
+
+    private long acquire(String key, Limit limit, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                sweepIfDue(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        return bucket.tryAcquire(limit, now);
+    }
+
+    // At most one inline sweep per second, so a flood of new keys doesn't turn every request into a scan
+    private void sweepIfDue(long now) {
+        long last = lastInlineSweep.get();
+        if (now - last >= TimeUnit.SECONDS.toNanos(1) && lastInlineSweep.compareAndSet(last, now)) {
+            evictIdle();
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", new Date());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too many requests, please retry later");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // A full bucket behaves exactly like a missing one, so dropping it loses nothing
+    @Scheduled(fixedDelayString = "${testiflow.rate-limit.sweep-interval:60s}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    public Stats getStats() {
+        return new Stats(buckets.size(), allowed.sum(), rejected.sum());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.cache.CoalescingCache;
+import com.example.TestiFlow.cache.ExpiringCache;
+import com.example.TestiFlow.dto.ReviewDto;
+import com.example.TestiFlow.event.ReviewEvent;
+import com.example.TestiFlow.event.SpaceEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Per-space cache of the public embed payload, held as ready-to-write JSON bytes plus a strong ETag.
+ * Concurrent misses for the same space share one load (CoalescingCache), so a cold popular space
+ * costs one Mongo query.
+ */
+@Service
+public class EmbedService {
+
+    /**
+     * Serialized liked reviews for one space.
+     */
+    public record EmbedPayload(byte[] json, String etag) {
+    }
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Safety net for changes made outside this process; in-process changes invalidate immediately
+    @Value("${testiflow.embed.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${testiflow.embed.cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary payloadBytes;
+    private DistributionSummary payloadReviews;
+
+    private CoalescingCache<String, EmbedPayload> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new CoalescingCache<>(maxSize, ttl, this::load);
+        // Recorded per load rather than per request, so a hot space doesn't drown out the rest
+        payloadBytes = DistributionSummary.builder("testiflow.embed.payload")
+                .description("Serialized embed payload size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        payloadReviews = ReviewService.reviewListSize(meterRegistry, "embed");
+    }
+
+    public EmbedPayload getLikedReviews(String spaceId) {
+        return cache.get(spaceId);
+    }
+
+    public void evict(String spaceId) {
+        cache.evict(spaceId);
+    }
+
+    public ExpiringCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (event.affectsLikedSet()) {
+            evict(event.spaceId());
+        }
+    }
+
+    @EventListener
+    public void onSpaceEvent(SpaceEvent event) {
+        evict(event.spaceId());
+    }
+
+    private EmbedPayload load(String spaceId) {
+        try {
+            List<ReviewDto> reviews = reviewService.getLikedReviews(spaceId);
+            byte[] json = objectMapper.writeValueAsBytes(reviews);
+            payloadBytes.record(json.length);
+            payloadReviews.record(reviews.size());
+            return new EmbedPayload(json, etag(json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize embed reviews", ex);
+        }
+    }
+
+    /**
+     * Strong ETag of a response body. Shared with EmbedWidgetService.
+     */
+    static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
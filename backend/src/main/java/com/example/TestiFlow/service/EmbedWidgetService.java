@@ -0,0 +1,186 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.cache.CoalescingCache;
+import com.example.TestiFlow.cache.ExpiringCache;
+import com.example.TestiFlow.dto.ReviewDto;
+import com.example.TestiFlow.dto.SpaceDto;
+import com.example.TestiFlow.dto.WidgetLayout;
+import com.example.TestiFlow.event.ReviewEvent;
+import com.example.TestiFlow.event.SpaceEvent;
+import com.example.TestiFlow.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Server-rendered embed widget: a self-contained HTML page of a space's liked reviews, meant to be
+ * shown in an iframe on the customer's site.
+ *
+ * All layouts of a space are rendered and gzipped together, once per change of its liked set
+ * (or space), and then served as-is from byte arrays. Concurrent misses for a space share one
+ * render through the same CoalescingCache EmbedService uses.
+ */
+@Service
+public class EmbedWidgetService {
+
+    /**
+     * One layout, ready to write: the HTML, its gzip encoding, and a strong ETag of the HTML.
+     */
+    public record WidgetPayload(byte[] html, byte[] gzip, String etag) {
+    }
+
+    private static final String BASE_CSS = """
+            *{box-sizing:border-box}
+            body{margin:0;font-family:system-ui,-apple-system,"Segoe UI",Roboto,sans-serif;color:#111827;background:transparent}
+            .testimonials-container{max-width:1200px;margin:0 auto;padding:20px}
+            .testimonial-card{background:#fff;border-radius:8px;padding:20px;box-shadow:0 2px 10px rgba(0,0,0,.1);margin-bottom:20px}
+            .testimonial-rating{color:#fbbf24;font-size:18px;margin-bottom:10px}
+            .testimonial-text{font-style:italic;margin:0 0 15px;line-height:1.6;white-space:pre-line}
+            .testimonial-author{color:#6b7280}
+            .testimonials-empty{color:#6b7280;text-align:center}
+            """;
+
+    private static final Map<WidgetLayout, String> LAYOUT_CSS = Map.of(
+            WidgetLayout.GRID, """
+                    .layout{display:grid;grid-template-columns:repeat(auto-fit,minmax(300px,1fr));gap:20px}
+                    .layout .testimonial-card{margin-bottom:0}
+                    """,
+            WidgetLayout.SLIDER, """
+                    .layout{display:flex;overflow-x:auto;gap:20px;padding-bottom:10px;scroll-snap-type:x mandatory}
+                    .layout .testimonial-card{min-width:300px;flex-shrink:0;scroll-snap-align:start;margin-bottom:0}
+                    """,
+            WidgetLayout.MASONRY, """
+                    .layout{column-count:3;column-gap:20px}
+                    .layout .testimonial-card{break-inside:avoid}
+                    @media (max-width:768px){.layout{column-count:1}}
+                    """,
+            WidgetLayout.MINIMAL, """
+                    .layout{max-width:720px}
+                    .layout .testimonial-card{box-shadow:none;border-bottom:1px solid #e5e7eb;border-radius:0;padding:16px 0}
+                    """,
+            WidgetLayout.CARD_STACK, """
+                    .layout{max-width:720px}
+                    .layout .testimonial-card{margin-bottom:-8px;position:relative;box-shadow:0 6px 16px rgba(0,0,0,.12)}
+                    .layout .testimonial-card:nth-child(odd){transform:rotate(-.6deg)}
+                    .layout .testimonial-card:nth-child(even){transform:rotate(.6deg)}
+                    """);
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private SpaceService spaceService;
+
+    // Safety net for changes made outside this process; in-process changes invalidate immediately
+    @Value("${testiflow.widget.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Value("${testiflow.widget.cache.max-size:10000}")
+    private int maxSize;
+
+    private CoalescingCache<String, Map<WidgetLayout, WidgetPayload>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new CoalescingCache<>(maxSize, ttl, this::render);
+    }
+
+    public WidgetPayload getWidget(String spaceId, WidgetLayout layout) {
+        return cache.get(spaceId).get(layout);
+    }
+
+    public void evict(String spaceId) {
+        cache.evict(spaceId);
+    }
+
+    public ExpiringCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (event.affectsLikedSet()) {
+            evict(event.spaceId());
+        }
+    }
+
+    @EventListener
+    public void onSpaceEvent(SpaceEvent event) {
+        evict(event.spaceId()); // Renamed (title) or deleted
+    }
+
+    private Map<WidgetLayout, WidgetPayload> render(String spaceId) {
+        SpaceDto space = spaceService.getSpaceById(spaceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Space not found with id: " + spaceId));
+        List<ReviewDto> reviews = reviewService.getLikedReviews(spaceId);
+
+        // The cards are the same for every layout; only the stylesheet differs
+        String cards = renderCards(reviews);
+        Map<WidgetLayout, WidgetPayload> layouts = new EnumMap<>(WidgetLayout.class);
+        for (WidgetLayout layout : WidgetLayout.values()) {
+            byte[] html = renderPage(space, layout, cards).getBytes(StandardCharsets.UTF_8);
+            layouts.put(layout, new WidgetPayload(html, gzip(html), EmbedService.etag(html)));
+        }
+        return layouts;
+    }
+
+    private static String renderCards(List<ReviewDto> reviews) {
+        if (reviews.isEmpty()) {
+            return "<p class=\"testimonials-empty\">No testimonials yet.</p>";
+        }
+        StringBuilder html = new StringBuilder(reviews.size() * 256);
+        for (ReviewDto review : reviews) {
+            int rating = Math.max(0, Math.min(5, review.getRating()));
+            html.append("<div class=\"testimonial-card\">")
+                    .append("<div class=\"testimonial-rating\" aria-label=\"").append(rating).append(" out of 5\">")
+                    .append("★".repeat(rating)).append("☆".repeat(5 - rating)).append("</div>")
+                    .append("<p class=\"testimonial-text\">&ldquo;").append(escape(review.getText())).append("&rdquo;</p>")
+                    .append("<div class=\"testimonial-author\"><strong>").append(escape(review.getAuthorName()))
+                    .append("</strong></div></div>");
+        }
+        return html.toString();
+    }
+
+    private static String renderPage(SpaceDto space, WidgetLayout layout, String cards) {
+        return "<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\">"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">"
+                + "<title>Testimonials - " + escape(space.getName()) + "</title>"
+                + "<style>" + BASE_CSS + LAYOUT_CSS.get(layout) + "</style></head><body>"
+                + "<div class=\"testimonials-container layout\">" + cards + "</div>"
+                + "</body></html>";
+    }
+
+    // Review text and names come from the public submission form
+    private static String escape(String value) {
+        return value == null ? "" : HtmlUtils.htmlEscape(value, StandardCharsets.UTF_8.name());
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3 + 64);
+        // Compressed once per change, served many times: worth the best ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.event.ReviewEvent;
+import com.example.TestiFlow.event.SpaceEvent;
+import com.example.TestiFlow.exception.ServiceBusyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fans review changes out to the owners watching a space over Server-Sent Events.
+ *
+ * Publishing never touches a socket: each event is serialized once and offered to every
+ * subscriber's bounded queue, and a subscriber's queue is drained by its own short-lived
+ * (virtual) writer task. A subscriber whose queue fills up is too slow to keep up and is
+ * disconnected; the client reconnects and reloads. Heartbeats go through the same queue,
+ * so a connection that stopped reading is found even when the space is quiet. Disconnecting
+ * only marks the subscription closed; the emitter is completed by its writer task, because
+ * completing waits for any send in progress.
+ */
+@Service
+public class ReviewFeedHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewFeedHub.class);
+
+    private static final FeedMessage HEARTBEAT = new FeedMessage(null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${testiflow.feed.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${testiflow.feed.connection-timeout:30m}")
+    private Duration connectionTimeout;
+
+    @Value("${testiflow.feed.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${testiflow.feed.max-subscribers-per-space:50}")
+    private int maxSubscribersPerSpace;
+
+    private final Map<String, Set<Subscription>> subscriptionsBySpace = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+
+    // Replaced in tests
+    Supplier<SseEmitter> emitterFactory = () -> new SseEmitter(connectionTimeout.toMillis());
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    public record Stats(int subscribers, int spaces, long published, long slowDisconnects) {
+    }
+
+    // name == null marks a heartbeat comment
+    private record FeedMessage(String name, String json) {
+    }
+
+    /**
+     * Registers a new connection for the space. Ownership must already have been checked.
+     */
+    public SseEmitter subscribe(String spaceId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many live connections, please retry shortly", 5);
+        }
+        SseEmitter emitter = emitterFactory.get();
+        Subscription subscription = new Subscription(spaceId, emitter);
+        AtomicBoolean added = new AtomicBoolean();
+        // Inside compute so a concurrent close can't drop the set we are adding to
+        subscriptionsBySpace.compute(spaceId, (id, subscriptions) -> {
+            if (subscriptions == null) {
+                subscriptions = ConcurrentHashMap.newKeySet();
+            }
+            if (subscriptions.size() < maxSubscribersPerSpace) {
+                added.set(subscriptions.add(subscription));
+            }
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many live connections for this space", 5);
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        subscription.offer(HEARTBEAT); // Gets bytes flowing so the client knows it is connected
+        return emitter;
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        Set<Subscription> subscriptions = subscriptionsBySpace.get(event.spaceId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.review()); // Once, not per subscriber
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize review event for space {}", event.spaceId(), ex);
+            return;
+        }
+        FeedMessage message = new FeedMessage(event.type().name().toLowerCase(), json);
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(message);
+        }
+        published.increment();
+    }
+
+    @EventListener
+    public void onSpaceEvent(SpaceEvent event) {
+        if (event.type() == SpaceEvent.Type.DELETED) {
+            Set<Subscription> subscriptions = subscriptionsBySpace.get(event.spaceId());
+            if (subscriptions != null) {
+                subscriptions.forEach(Subscription::close);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${testiflow.feed.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        for (Set<Subscription> subscriptions : subscriptionsBySpace.values()) {
+            for (Subscription subscription : subscriptions) {
+                subscription.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptionsBySpace.values().forEach(subscriptions -> subscriptions.forEach(Subscription::close));
+        writers.shutdown();
+    }
+
+    public Stats getStats() {
+        return new Stats(subscriberCount.get(), subscriptionsBySpace.size(), published.sum(), slowDisconnects.sum());
+    }
+
+    private final class Subscription {
+        private final String spaceId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<FeedMessage> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        Subscription(String spaceId, SseEmitter emitter) {
+            this.spaceId = spaceId;
+            this.emitter = emitter;
+        }
+
+        void offer(FeedMessage message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                slowDisconnects.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // At most one writer per subscription, so events stay in order without a lock
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                    close(); // Shutting down; the container completes the emitter
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedMessage message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    emitter.send(message.name() == null
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(message.name()).data(message.json()));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close(); // Client went away
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                complete();
+            } else if (!queue.isEmpty()) {
+                scheduleDrain(); // Something arrived after the last poll
+            }
+        }
+
+        // Only from the writer task: complete() waits for a send in progress to finish
+        private void complete() {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                // Already completed by the container
+            }
+        }
+
+        // Safe on a publishing thread: never touches the emitter itself
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            subscriptionsBySpace.computeIfPresent(spaceId, (id, subscriptions) -> {
+                subscriptions.remove(this);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+            queue.clear();
+            scheduleDrain(); // A writer already running completes the emitter when it finishes
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.event.ReviewsIngestedEvent;
+import com.example.TestiFlow.exception.ServiceBusyException;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-behind path for public review submissions.
+ *
+ * When enabled, validated reviews are put on a bounded in-memory queue and the request returns
+ * immediately. A single writer thread drains the queue with insertMany batches, flushing once a
+ * batch is full or the flush interval has passed. A full queue rejects new submissions with 503,
+ * and shutdown drains whatever was accepted before the repositories go away.
+ */
+@Service
+public class ReviewIngestionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewIngestionQueue.class);
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${testiflow.ingestion.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${testiflow.ingestion.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${testiflow.ingestion.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${testiflow.ingestion.async.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${testiflow.ingestion.async.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    private BlockingQueue<Review> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    public record Stats(int queueDepth, long accepted, long rejected, long written, long failed,
+                        long flushes, Duration lastFlush, Duration averageFlush) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "review-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Async review ingestion enabled (capacity {}, batch {}, flush every {})",
+                queueCapacity, batchSize, flushInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts a review for a later batched insert, or throws ServiceBusyException if the queue is full.
+     */
+    public void enqueue(Review review) {
+        if (!running || !queue.offer(review)) {
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("Too many submissions right now, please retry shortly", 1);
+        }
+        accepted.incrementAndGet();
+    }
+
+    private void drainLoop() {
+        List<Review> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Review first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Review next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Not expected (shutdown just clears running); stop accepting and flush what we hold
+                running = false;
+                do {
+                    flush(batch);
+                    batch.clear();
+                    queue.drainTo(batch, batchSize);
+                } while (!batch.isEmpty());
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Review ingestion writer error", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Review> batch) {
+        List<Review> inserted = insertWithRetry(batch);
+        if (!inserted.isEmpty()) {
+            // Outside the retry loop: a failing listener must not cause a duplicate insert
+            eventPublisher.publishEvent(new ReviewsIngestedEvent(List.copyOf(inserted)));
+        }
+    }
+
+    /**
+     * Inserts the batch, retrying only the reviews not yet known to be stored. Ids are assigned
+     * before the first attempt, so a review that an earlier attempt wrote (partly failed batch,
+     * or a timeout after the server applied it) comes back as a duplicate id instead of being
+     * inserted a second time. Returns every review that ended up stored, each exactly once.
+     */
+    private List<Review> insertWithRetry(List<Review> batch) {
+        Instant now = Instant.now();
+        for (Review review : batch) {
+            if (review.getId() == null) {
+                review.setId(new ObjectId().toHexString());
+            }
+            if (review.getCreatedAt() == null) {
+                review.setCreatedAt(now); // Auditing treats a review with an id as already created
+            }
+        }
+
+        List<Review> inserted = new ArrayList<>(batch.size());
+        List<Review> pending = new ArrayList<>(batch);
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                List<Review> stored = reviewRepository.insertAssigned(pending); // One unordered insertMany
+                long elapsed = System.nanoTime() - start;
+                lastFlushNanos = elapsed;
+                totalFlushNanos.addAndGet(elapsed);
+                flushes.incrementAndGet();
+                inserted.addAll(stored);
+                pending = unwritten(pending, stored);
+                if (pending.isEmpty()) {
+                    break;
+                }
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    log.error("Dropping {} of {} queued reviews after {} insert attempts", pending.size(), batch.size(), attempt);
+                    break;
+                }
+                log.warn("{} of {} queued reviews were not inserted (attempt {}), retrying them", pending.size(), batch.size(), attempt);
+            } catch (RuntimeException ex) {
+                // Nothing is known about this attempt; retrying all pending is safe, written ones come back as duplicates
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    log.error("Dropping {} of {} queued reviews after {} insert attempts", pending.size(), batch.size(), attempt, ex);
+                    break;
+                }
+                log.warn("Insert of {} queued reviews failed (attempt {}), retrying", pending.size(), attempt, ex);
+            }
+            try {
+                Thread.sleep(100L * attempt);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        written.addAndGet(inserted.size());
+        failed.addAndGet(pending.size());
+        return inserted;
+    }
+
+    private static List<Review> unwritten(List<Review> pending, List<Review> stored) {
+        Set<String> storedIds = new HashSet<>();
+        for (Review review : stored) {
+            storedIds.add(review.getId());
+        }
+        List<Review> rest = new ArrayList<>();
+        for (Review review : pending) {
+            if (!storedIds.contains(review.getId())) {
+                rest.add(review);
+            }
+        }
+        return rest;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false; // Stop accepting; the writer keeps going until the queue is empty
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.error("Review ingestion did not drain within {}; {} reviews still queued", shutdownTimeout, queue.size());
+        }
+    }
+
+    public Stats getStats() {
+        long n = flushes.get();
+        return new Stats(
+                queue == null ? 0 : queue.size(),
+                accepted.get(), rejected.get(), written.get(), failed.get(), n,
+                Duration.ofNanos(lastFlushNanos),
+                Duration.ofNanos(n == 0 ? 0 : totalFlushNanos.get() / n));
+    }
+}
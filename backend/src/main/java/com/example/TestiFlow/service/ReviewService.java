@@ -1,38 +1,114 @@
 package com.example.TestiFlow.service;
 
+import com.example.TestiFlow.dto.BulkReviewRequest;
+import com.example.TestiFlow.dto.BulkReviewResultDto;
+import com.example.TestiFlow.dto.DashboardSummaryDto;
 import com.example.TestiFlow.dto.ReviewDto; // Import DTO
+import com.example.TestiFlow.dto.ReviewExportFormat;
+import com.example.TestiFlow.dto.ReviewPageDto;
+import com.example.TestiFlow.dto.ReviewPageRequest;
 import com.example.TestiFlow.dto.ReviewRequest;
+import com.example.TestiFlow.dto.ReviewSearchRequest;
+import com.example.TestiFlow.dto.SpaceDto;
+import com.example.TestiFlow.event.ReviewEvent;
+import com.example.TestiFlow.event.ReviewsIngestedEvent;
+import com.example.TestiFlow.exception.BadRequestException;
 import com.example.TestiFlow.exception.ResourceNotFoundException;
 import com.example.TestiFlow.model.Review;
-import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.repository.ReviewCursor;
 import com.example.TestiFlow.repository.ReviewRepository;
-import com.example.TestiFlow.repository.SpaceRepository;
+import com.example.TestiFlow.repository.ReviewSummary;
 import com.example.TestiFlow.service.SpaceService; // Keep this
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors; // Import this
+import java.util.stream.Stream;
 
 @Service
 public class ReviewService {
 
+    private static final int RECENT_REVIEWS_ON_DASHBOARD = 3;
+    private static final String[] CSV_HEADER = {"id", "authorName", "authorEmail", "rating", "text", "liked", "createdAt"};
+
     @Autowired
     private ReviewRepository reviewRepository;
 
     @Autowired
-    private SpaceRepository spaceRepository;
+    private SpaceService spaceService; // Needed for ownership checks
 
     @Autowired
-    private SpaceService spaceService; // Needed for ownership checks
+    private SpaceStatsService spaceStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReviewIngestionQueue ingestionQueue;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${testiflow.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${testiflow.export.flush-every:1000}")
+    private int exportFlushEvery;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary pageSizes;
+    private DistributionSummary searchSizes;
+
+    @PostConstruct
+    void initMetrics() {
+        pageSizes = reviewListSize(meterRegistry, "page");
+        searchSizes = reviewListSize(meterRegistry, "search");
+    }
+
+    /**
+     * How many reviews each response of the given kind carries. Shared with EmbedService.
+     */
+    static DistributionSummary reviewListSize(MeterRegistry registry, String kind) {
+        return DistributionSummary.builder("testiflow.reviews.returned")
+                .description("Reviews per list response")
+                .baseUnit("reviews")
+                .tag("kind", kind)
+                .register(registry);
+    }
 
     /**
      * Helper method to convert Review model to ReviewDto.
+     * Package-private so the JMH benchmarks can call it.
      */
-    private ReviewDto convertToDto(Review review) {
+    ReviewDto convertToDto(Review review) {
         ReviewDto dto = new ReviewDto();
         dto.setId(review.getId());
-        dto.setSpaceId(review.getSpace().getId()); // Use space ID
+        dto.setSpaceId(review.getSpaceId());
         dto.setAuthorName(review.getAuthorName());
         dto.setAuthorEmail(review.getAuthorEmail());
         dto.setRating(review.getRating());
@@ -43,63 +119,330 @@ public class ReviewService {
     }
 
     // Public method - submitReview remains largely the same
-    public Space submitReview(String slug, ReviewRequest reviewRequest) {
-        Space space = spaceRepository.findBySlug(slug)
+    public SpaceDto submitReview(String slug, ReviewRequest reviewRequest) {
+        SpaceDto space = spaceService.getSpaceBySlug(slug) // Usually answered from the space cache
                 .orElseThrow(() -> new ResourceNotFoundException("Space not found with slug: " + slug));
 
         Review review = new Review(
-                space,
+                space.getId(),
+                space.getUserId(),
                 reviewRequest.getAuthorName(),
                 reviewRequest.getAuthorEmail(),
                 reviewRequest.getRating(),
                 reviewRequest.getText()
         );
 
-        reviewRepository.save(review);
+        if (ingestionQueue.isEnabled()) {
+            ingestionQueue.enqueue(review); // Written in the next batch; stats and events follow from there
+        } else {
+            onReviewsPersisted(List.of(reviewRepository.save(review)));
+        }
         return space; // Still return Space for redirect URL
     }
 
-    // UPDATE: Change return type List<Review> to List<ReviewDto>
-    public List<ReviewDto> getReviewsForSpace(String spaceId, String userEmail) {
+    public boolean isAsyncIngestion() {
+        return ingestionQueue.isEnabled();
+    }
+
+    // Batches written by the ingestion queue get the same follow-up as a direct save
+    @EventListener
+    public void onReviewsIngested(ReviewsIngestedEvent event) {
+        onReviewsPersisted(event.reviews());
+    }
+
+    private void onReviewsPersisted(List<Review> reviews) {
+        spaceStatsService.recordSubmitted(reviews); // One stats update per space, not per review
+        for (Review review : reviews) {
+            eventPublisher.publishEvent(new ReviewEvent(ReviewEvent.Type.SUBMITTED, review.getSpaceId(), convertToDto(review)));
+        }
+    }
+
+    // Returns one keyset page; page N costs the same index seek as page 1
+    public ReviewPageDto getReviewsForSpace(String spaceId, String userEmail, ReviewPageRequest pageRequest) {
         // This implicitly checks ownership via SpaceService
         spaceService.getSpaceByIdAndUser(spaceId, userEmail)
                  .orElseThrow(() -> new ResourceNotFoundException("Space not found or user not authorized"));
 
-        return reviewRepository.findBySpaceId(spaceId)
-                .stream()
-                .map(this::convertToDto) // Convert each Review
-                .collect(Collectors.toList());
+        ReviewCursor after = pageRequest.getCursor() == null || pageRequest.getCursor().isBlank()
+                ? null
+                : ReviewCursor.decode(pageRequest.getCursor());
+        int limit = pageRequest.effectiveLimit();
+
+        // Fetch one extra row to learn whether another page exists
+        List<Review> reviews = reviewRepository.findPage(spaceId, pageRequest, after, limit + 1);
+        boolean hasMore = reviews.size() > limit;
+        if (hasMore) {
+            reviews = reviews.subList(0, limit);
+        }
+
+        List<ReviewDto> items = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            items.add(convertToDto(review));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Review last = reviews.get(reviews.size() - 1);
+            nextCursor = new ReviewCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        pageSizes.record(items.size());
+        return new ReviewPageDto(items, nextCursor, hasMore);
     }
 
-    // UPDATE: Change return type Review to ReviewDto
-    public ReviewDto toggleLike(String reviewId, String userEmail) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
+    /**
+     * Relevance-ranked search over review text and author names within one space.
+     * The cursor is an opaque offset; results stop at ReviewSearchRequest.MAX_RESULTS.
+     */
+    public ReviewPageDto searchReviews(String spaceId, String userEmail, ReviewSearchRequest searchRequest) {
+        String q = searchRequest.getQ() == null ? "" : searchRequest.getQ().trim();
+        if (q.isEmpty() || q.length() > ReviewSearchRequest.MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be 1-" + ReviewSearchRequest.MAX_QUERY_LENGTH + " characters");
+        }
+        searchRequest.setQ(q);
+        checkSpaceOwnership(spaceId, userEmail);
+
+        int offset = decodeSearchCursor(searchRequest.getCursor());
+        int limit = Math.min(searchRequest.effectiveLimit(), ReviewSearchRequest.MAX_RESULTS - offset);
+        if (limit <= 0) {
+            return new ReviewPageDto(List.of(), null, false);
+        }
+
+        List<Review> reviews = reviewRepository.search(spaceId, searchRequest, offset, limit + 1);
+        boolean hasMore = reviews.size() > limit && offset + limit < ReviewSearchRequest.MAX_RESULTS;
+        if (reviews.size() > limit) {
+            reviews = reviews.subList(0, limit);
+        }
+        List<ReviewDto> items = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            items.add(convertToDto(review));
+        }
+        searchSizes.record(items.size());
+        return new ReviewPageDto(items, hasMore ? encodeSearchCursor(offset + limit) : null, hasMore);
+    }
 
-        // Check ownership via SpaceService
-        spaceService.getSpaceByIdAndUser(review.getSpace().getId(), userEmail)
-                 .orElseThrow(() -> new RuntimeException("User not authorized to modify this review")); // Or specific exception
+    private static String encodeSearchCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("o:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
 
-        review.setLiked(!review.isLiked());
-        Review updatedReview = reviewRepository.save(review);
-        return convertToDto(updatedReview); // Convert before returning
+    private static int decodeSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int offset = decoded.startsWith("o:") ? Integer.parseInt(decoded.substring(2)) : -1;
+            if (offset >= 0 && offset <= ReviewSearchRequest.MAX_RESULTS) {
+                return offset;
+            }
+        } catch (IllegalArgumentException ex) {
+            // Falls through to the error below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
+    // Checked before an export starts streaming, while a 404 can still be sent
+    public void checkSpaceOwnership(String spaceId, String userEmail) {
+        spaceService.getSpaceByIdAndUser(spaceId, userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("Space not found or user not authorized"));
+    }
+
+    /**
+     * Writes every review of the space to out, oldest first, straight from a Mongo cursor.
+     * Heap use is one cursor batch plus the writer buffer no matter how big the space is;
+     * output is flushed every exportFlushEvery rows so the client sees steady progress.
+     */
+    public void exportReviews(String spaceId, ReviewExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Review> reviews = reviewRepository.streamBySpaceId(spaceId, exportBatchSize)) {
+            if (format == ReviewExportFormat.CSV) {
+                writeCsv(reviews, writer);
+            } else {
+                writeNdjson(reviews, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Stream<Review> reviews, Writer writer) throws IOException {
+        SequenceWriter json = objectMapper.writerFor(ReviewDto.class)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+        long rows = 0;
+        for (Review review : (Iterable<Review>) reviews::iterator) {
+            json.write(convertToDto(review));
+            if (++rows % exportFlushEvery == 0) {
+                json.flush();
+            }
+        }
+        json.flush(); // Not close(): that would close the response stream under the caller
+        if (rows > 0) {
+            writer.write('\n'); // The separator only goes between values; end the last line too
+        }
+    }
+
+    private void writeCsv(Stream<Review> reviews, Writer writer) throws IOException {
+        writeCsvRow(writer, CSV_HEADER);
+        long rows = 0;
+        for (Review review : (Iterable<Review>) reviews::iterator) {
+            writeCsvRow(writer, new String[]{
+                    review.getId(),
+                    review.getAuthorName(),
+                    review.getAuthorEmail(),
+                    String.valueOf(review.getRating()),
+                    review.getText(),
+                    String.valueOf(review.isLiked()),
+                    review.getCreatedAt() == null ? "" : review.getCreatedAt().toString()
+            });
+            if (++rows % exportFlushEvery == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(fields[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Reviews are untrusted input; stop spreadsheets from evaluating them as formulas
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Figures for the dashboard home page across all of the user's spaces.
+     * One query for the space ids plus one aggregation, regardless of how many spaces there are.
+     */
+    public DashboardSummaryDto getDashboardSummary(String userEmail, Instant since) {
+        List<SpaceDto> spaces = spaceService.getSpacesForUser(userEmail);
+        List<String> spaceIds = new ArrayList<>(spaces.size());
+        for (SpaceDto space : spaces) {
+            spaceIds.add(space.getId());
+        }
+
+        ReviewSummary summary = reviewRepository.summarize(spaceIds, since, RECENT_REVIEWS_ON_DASHBOARD);
+
+        DashboardSummaryDto dto = new DashboardSummaryDto();
+        dto.setTotalSpaces(spaces.size());
+        dto.setTotalReviews(summary.total());
+        dto.setThisMonthReviews(summary.since());
+        dto.setLikedReviews(summary.liked());
+        dto.setAverageRating(summary.averageRating());
+        List<ReviewDto> recent = new ArrayList<>(summary.recent().size());
+        for (Review review : summary.recent()) {
+            recent.add(convertToDto(review));
+        }
+        dto.setRecentReviews(recent);
+        return dto;
+    }
+
+    // One ownership-scoped findAndModify instead of read, ownership lookup and full-document save
+    public ReviewDto toggleLike(String reviewId, String userEmail) {
+        String ownerId = spaceService.resolveUserId(userEmail);
+        Review updatedReview = reviewRepository.toggleLike(reviewId, ownerId);
+        if (updatedReview == null) {
+            // Either missing or owned by someone else; don't reveal which
+            throw new ResourceNotFoundException("Review not found with id: " + reviewId);
+        }
+
+        spaceStatsService.recordLikeToggled(updatedReview);
+        ReviewDto dto = convertToDto(updatedReview);
+        eventPublisher.publishEvent(new ReviewEvent(
+                dto.isLiked() ? ReviewEvent.Type.LIKED : ReviewEvent.Type.UNLIKED, dto.getSpaceId(), dto));
+        return dto;
     }
 
-    // Delete method remains the same (returns void)
     public void deleteReview(String reviewId, String userEmail) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
+        String ownerId = spaceService.resolveUserId(userEmail);
+        Review review = reviewRepository.deleteOwned(reviewId, ownerId);
+        if (review == null) {
+            throw new ResourceNotFoundException("Review not found with id: " + reviewId);
+        }
 
-        // Check ownership via SpaceService
-        spaceService.getSpaceByIdAndUser(review.getSpace().getId(), userEmail)
-                 .orElseThrow(() -> new RuntimeException("User not authorized to delete this review")); // Or specific exception
+        spaceStatsService.recordDeleted(review);
+        eventPublisher.publishEvent(new ReviewEvent(ReviewEvent.Type.DELETED, review.getSpaceId(), convertToDto(review)));
+    }
 
-        reviewRepository.delete(review);
+    /**
+     * Applies one action to many reviews: a single ownership-scoped read to learn what each id is,
+     * then a single updateMany or deleteMany whose filter carries the ownership condition again.
+     * Ids that don't exist and ids owned by someone else are both reported as "not_found".
+     *
+     * Stats, events and the changed count follow only from the reviews the write itself reports
+     * as changed, never from the read: a review toggled or deleted by someone else in between is
+     * counted once, by whoever actually changed it.
+     */
+    public BulkReviewResultDto moderate(BulkReviewRequest request, String userEmail) {
+        String action = request.getAction().trim().toLowerCase();
+        if (!action.equals("like") && !action.equals("unlike") && !action.equals("delete")) {
+            throw new BadRequestException("Unsupported action: " + request.getAction());
+        }
+        String ownerId = spaceService.resolveUserId(userEmail);
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+
+        Map<String, Review> owned = new LinkedHashMap<>();
+        for (Review review : reviewRepository.findOwned(ids, ownerId)) {
+            owned.put(review.getId(), review);
+        }
+
+        List<Review> changed = List.of();
+        if (action.equals("delete")) {
+            if (!owned.isEmpty()) {
+                changed = reviewRepository.deleteAllOwned(owned.keySet(), ownerId);
+                spaceStatsService.recordDeleted(changed);
+            }
+        } else {
+            boolean liked = action.equals("like");
+            List<String> candidateIds = new ArrayList<>();
+            for (Review review : owned.values()) {
+                if (review.isLiked() != liked) {
+                    candidateIds.add(review.getId());
+                }
+            }
+            if (!candidateIds.isEmpty()) {
+                changed = reviewRepository.setLikedOwned(candidateIds, ownerId, liked);
+                spaceStatsService.recordLikeToggled(changed);
+            }
+        }
+
+        ReviewEvent.Type eventType = switch (action) {
+            case "delete" -> ReviewEvent.Type.DELETED;
+            case "like" -> ReviewEvent.Type.LIKED;
+            default -> ReviewEvent.Type.UNLIKED;
+        };
+        for (Review review : changed) {
+            eventPublisher.publishEvent(new ReviewEvent(eventType, review.getSpaceId(), convertToDto(review)));
+        }
+
+        String done = action.equals("delete") ? "deleted" : action + "d";
+        Set<String> changedIds = new HashSet<>();
+        for (Review review : changed) {
+            changedIds.add(review.getId());
+        }
+        Map<String, String> results = new LinkedHashMap<>();
+        for (String id : ids) {
+            results.put(id, !owned.containsKey(id) ? "not_found" : changedIds.contains(id) ? done : "unchanged");
+        }
+        return new BulkReviewResultDto(action, changed.size(), results);
     }
 
     // UPDATE: Public method for embeds - return List<ReviewDto>
     public List<ReviewDto> getLikedReviews(String spaceId) {
-        if (!spaceRepository.existsById(spaceId)) {
+        if (spaceService.getSpaceById(spaceId).isEmpty()) {
             throw new ResourceNotFoundException("Space not found with id: " + spaceId);
         }
         return reviewRepository.findBySpaceIdAndLikedTrue(spaceId)
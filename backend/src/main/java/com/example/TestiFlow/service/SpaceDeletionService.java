@@ -0,0 +1,211 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.SpaceDeletionStatusDto;
+import com.example.TestiFlow.exception.ResourceNotFoundException;
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.model.SpaceDeletionJob;
+import com.example.TestiFlow.repository.ReviewRepository;
+import com.example.TestiFlow.repository.SpaceDeletionJobRepository;
+import com.example.TestiFlow.repository.SpaceRepository;
+import com.example.TestiFlow.repository.SpaceStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the reviews of deleted spaces in the background.
+ *
+ * deleteSpace removes the space and records a job; a single worker thread then removes the
+ * space's reviews in batches of batchSize, pausing between batches so foreground requests keep
+ * their share of the database. Progress is stored on the job after every batch, and jobs are
+ * leased rather than owned, so a restart (or a second instance) simply picks up where it stopped.
+ *
+ * On startup the worker also looks for reviews whose space no longer exists - left behind by
+ * deletions from before this job existed - and queues a job for each such space.
+ */
+@Service
+public class SpaceDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpaceDeletionService.class);
+
+    private static final int SWEEP_CHUNK = 500;
+
+    @Autowired
+    private SpaceDeletionJobRepository jobRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private SpaceRepository spaceRepository;
+
+    @Autowired
+    private SpaceStatsRepository spaceStatsRepository;
+
+    @Value("${testiflow.space-deletion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${testiflow.space-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${testiflow.space-deletion.pause:100ms}")
+    private Duration pause;
+
+    @Value("${testiflow.space-deletion.lease:2m}")
+    private Duration lease;
+
+    @Value("${testiflow.space-deletion.idle-poll:30s}")
+    private Duration idlePoll;
+
+    @Value("${testiflow.space-deletion.sweep-orphans-on-startup:true}")
+    private boolean sweepOrphansOnStartup;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * Queues removal of a just-deleted space's reviews. Called after the space itself is gone,
+     * so a crash in between leaves orphans for the sweeper rather than a job for a live space.
+     */
+    public void schedule(String spaceId, String ownerId) {
+        jobRepository.open(spaceId, ownerId, Instant.now());
+        wakeups.release();
+    }
+
+    public SpaceDeletionStatusDto getStatus(String spaceId, String ownerId) {
+        return jobRepository.findBySpaceIdAndOwnerId(spaceId, ownerId)
+                .map(this::convertToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("No deletion found for space: " + spaceId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorker() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        // Off the main thread so an unreachable database never blocks startup
+        worker = new Thread(this::runWorker, "space-deletion-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stopWorker() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt(); // The job's lease runs out and it is resumed on next start
+        }
+    }
+
+    private void runWorker() {
+        if (sweepOrphansOnStartup) {
+            try {
+                int queued = sweepOrphans();
+                if (queued > 0) {
+                    log.info("Queued review cleanup for {} deleted spaces", queued);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Orphaned review sweep failed; it will be retried on next startup", ex);
+            }
+        }
+
+        while (running) {
+            try {
+                Instant now = Instant.now();
+                SpaceDeletionJob job = jobRepository.claimNext(now, now.plus(lease));
+                if (job == null) {
+                    wakeups.tryAcquire(idlePoll.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                    continue;
+                }
+                process(job);
+            } catch (InterruptedException ex) {
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Space deletion worker error; retrying in {}", idlePoll, ex);
+                try {
+                    Thread.sleep(idlePoll.toMillis());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(SpaceDeletionJob job) throws InterruptedException {
+        String spaceId = job.getSpaceId();
+        long deleted = job.getDeletedReviews();
+        log.info("Deleting reviews of space {} ({} already deleted)", spaceId, deleted);
+
+        while (running) {
+            long start = System.nanoTime();
+            long removed = reviewRepository.deleteBatchBySpaceId(spaceId, batchSize);
+            Instant now = Instant.now();
+            if (removed == 0) {
+                // A submission that raced the delete may have recreated the stats document by upsert
+                spaceStatsRepository.deleteById(spaceId);
+                jobRepository.markDone(spaceId, now);
+                log.info("Deleted {} reviews of space {}", deleted, spaceId);
+                return;
+            }
+            deleted += removed;
+            jobRepository.recordProgress(spaceId, removed, now, now.plus(lease));
+
+            // Throttle: rest at least as long as the batch took, so we use at most half of one connection
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Thread.sleep(Math.max(pause.toMillis(), elapsedMillis));
+        }
+    }
+
+    /**
+     * Queues a job for every space that reviews still point at but no longer exists.
+     * Returns the number of jobs created.
+     */
+    int sweepOrphans() {
+        List<String> referenced = reviewRepository.findDistinctSpaceIds();
+        Instant now = Instant.now();
+        int queued = 0;
+        for (int from = 0; from < referenced.size(); from += SWEEP_CHUNK) {
+            List<String> chunk = referenced.subList(from, Math.min(from + SWEEP_CHUNK, referenced.size()));
+            Set<String> existing = new HashSet<>();
+            for (Space space : spaceRepository.findAllById(chunk)) {
+                existing.add(space.getId());
+            }
+            for (String spaceId : chunk) {
+                if (!existing.contains(spaceId) && jobRepository.open(spaceId, null, now)) {
+                    queued++;
+                }
+            }
+        }
+        if (queued > 0) {
+            wakeups.release();
+        }
+        return queued;
+    }
+
+    private SpaceDeletionStatusDto convertToDto(SpaceDeletionJob job) {
+        SpaceDeletionStatusDto dto = new SpaceDeletionStatusDto();
+        dto.setSpaceId(job.getSpaceId());
+        dto.setStatus(job.getStatus().name());
+        dto.setDeletedReviews(job.getDeletedReviews());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
+    }
+}
@@ -1,130 +1,246 @@
 package com.example.TestiFlow.service;
 
+import com.example.TestiFlow.cache.ExpiringCache;
+import com.example.TestiFlow.dto.SpaceDeletionStatusDto;
 import com.example.TestiFlow.dto.SpaceDto;
 import com.example.TestiFlow.dto.SpaceRequest;
+import com.example.TestiFlow.event.SpaceEvent;
 import com.example.TestiFlow.exception.ResourceNotFoundException;
+import com.example.TestiFlow.exception.ServiceBusyException;
 import com.example.TestiFlow.model.Space;
 import com.example.TestiFlow.model.User;
+import com.example.TestiFlow.repository.SlugCounterRepository;
 import com.example.TestiFlow.repository.SpaceRepository;
 import com.example.TestiFlow.repository.UserRepository;
 import com.github.slugify.Slugify;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class SpaceService {
 
+    private static final int MAX_SLUG_ATTEMPTS = 5;
+
     @Autowired
     private SpaceRepository spaceRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SlugCounterRepository slugCounterRepository;
+
+    @Autowired
+    private SpaceStatsService spaceStatsService;
+
+    @Autowired
+    private SpaceDeletionService spaceDeletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Read-through caches for the hot path: ownership checks and public slug resolution.
+    // Space ownership never changes; name/redirect edits write through on this instance
+    // and reach other instances within the TTL.
+    private final ExpiringCache<String, String> userIdsByEmail;
+    private final ExpiringCache<String, SpaceDto> spacesById;
+    private final ExpiringCache<String, SpaceDto> spacesBySlug;
+
+    public SpaceService(@Value("${testiflow.space-cache.max-size:10000}") int maxSize,
+                        @Value("${testiflow.space-cache.ttl:5m}") Duration ttl) {
+        this.userIdsByEmail = new ExpiringCache<>(maxSize, ttl);
+        this.spacesById = new ExpiringCache<>(maxSize, ttl);
+        this.spacesBySlug = new ExpiringCache<>(maxSize, ttl);
+    }
+
     // Add this to pom.xml: <dependency><groupId>com.github.slugify</groupId><artifactId>slugify</artifactId><version>3.0.5</version></dependency>
     private final Slugify slg = Slugify.builder().build();
 
     /**
      * Helper method to convert a Space model to a SpaceDto.
      * This is the key to preventing the recursive JSON error.
+     * Package-private so the JMH benchmarks can call it.
      */
-    private SpaceDto convertToDto(Space space) {
+    SpaceDto convertToDto(Space space) {
         SpaceDto dto = new SpaceDto();
         dto.setId(space.getId());
         dto.setName(space.getName());
         dto.setSlug(space.getSlug());
         dto.setPublicUrl(space.getPublicUrl());
         dto.setRedirectUrl(space.getRedirectUrl());
-        dto.setUserId(space.getUser().getId());
+        dto.setUserId(space.getOwnerId());
         return dto;
     }
 
     // UPDATE: Changed return type from Space to SpaceDto
     public SpaceDto createSpace(SpaceRequest spaceRequest, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        String userId = resolveUserId(userEmail);
 
         Space space = new Space();
         space.setName(spaceRequest.getName());
         space.setRedirectUrl(spaceRequest.getRedirectUrl());
-        space.setUser(user);
-
-        // Generate unique slug
-        String slug = slg.slugify(spaceRequest.getName());
-        int counter = 1;
-        while (spaceRepository.findBySlug(slug).isPresent()) {
-            slug = slg.slugify(spaceRequest.getName()) + "-" + counter;
-            counter++;
-        }
-        space.setSlug(slug);
-        space.setPublicUrl("/t/" + slug); // Assuming '/t/' is the public path
-
-        Space savedSpace = spaceRepository.save(space);
+        space.setOwnerId(userId);
 
-        // Add this space to the user's list
-        user.getSpaces().add(savedSpace);
-        userRepository.save(user);
+        // Allocate the next free slug and insert; a concurrent create that wins the
+        // unique slug index just makes us take the next suffix
+        String base = slg.slugify(spaceRequest.getName());
+        if (base.isEmpty()) {
+            base = "space";
+        }
+        Space savedSpace = null;
+        for (int attempt = 0; savedSpace == null; attempt++) {
+            try {
+                // Inside the retry: seeding a new base can also lose a race (on the counter's upsert)
+                String slug = nextSlug(base);
+                space.setSlug(slug);
+                space.setPublicUrl("/t/" + slug); // Assuming '/t/' is the public path
+                savedSpace = spaceRepository.insert(space);
+            } catch (DuplicateKeyException ex) {
+                if (attempt + 1 >= MAX_SLUG_ATTEMPTS) {
+                    throw new ServiceBusyException("Could not allocate a unique address for this space, please retry", 1);
+                }
+            }
+        }
+        spaceStatsService.initialize(savedSpace.getId());
 
         // Convert to DTO before returning
-        return convertToDto(savedSpace);
+        SpaceDto dto = convertToDto(savedSpace);
+        cache(dto);
+        return dto;
+    }
+
+    /**
+     * Next candidate slug for base in at most two round trips: one atomic $inc on the base's
+     * counter, or, the first time a base is seen, one anchored-regex query to seed that counter
+     * from the slugs that already exist.
+     */
+    private String nextSlug(String base) {
+        Long seq = slugCounterRepository.incrementAndGet(base);
+        if (seq == null) {
+            long next = -1; // -1: the bare base is still free
+            // At most 18 digits always fits a long. A longer suffix (from a name like "Acme 99999999999999999999")
+            // can never be one our counter hands out, so it is simply not a collision to skip past
+            Pattern suffixed = Pattern.compile("^" + Pattern.quote(base) + "-(\\d{1,18})$");
+            // Slugify output is letters, digits and '-', so base needs no escaping and the
+            // regex stays a plain prefix that Mongo can bound on the slug index
+            for (Space existing : spaceRepository.findSlugsMatching("^" + base + "(-[0-9]+)?$")) {
+                if (existing.getSlug().equals(base)) {
+                    next = Math.max(next, 0);
+                } else {
+                    Matcher m = suffixed.matcher(existing.getSlug());
+                    if (m.matches()) {
+                        next = Math.max(next, Long.parseLong(m.group(1)));
+                    }
+                }
+            }
+            seq = slugCounterRepository.seedAtLeast(base, next + 1);
+        }
+        return seq == 0 ? base : base + "-" + seq;
     }
 
     // UPDATE: Changed return type from List<Space> to List<SpaceDto>
     public List<SpaceDto> getSpacesForUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        String userId = resolveUserId(userEmail);
         
-        return spaceRepository.findByUserId(user.getId())
+        return spaceRepository.findByOwnerId(userId)
                 .stream() // Convert the list
                 .map(this::convertToDto) // using our new helper method
                 .collect(Collectors.toList()); // into a List<SpaceDto>
     }
 
-    // UPDATE: Changed return type from Optional<Space> to Optional<SpaceDto>
+    // Answered from memory once the user and space are cached
     public Optional<SpaceDto> getSpaceByIdAndUser(String spaceId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        String userId = resolveUserId(userEmail);
+        return getSpaceById(spaceId)
+                .filter(space -> userId.equals(space.getUserId()));
+    }
+
+    // No ownership check; for public paths such as the embed
+    public Optional<SpaceDto> getSpaceById(String spaceId) {
+        return Optional.ofNullable(spacesById.getOrLoad(spaceId,
+                id -> spaceRepository.findById(id).map(this::convertToDto).orElse(null)));
+    }
+
+    // Public review submission resolves the space by slug on every request
+    public Optional<SpaceDto> getSpaceBySlug(String slug) {
+        return Optional.ofNullable(spacesBySlug.getOrLoad(slug,
+                s -> spaceRepository.findBySlug(s).map(this::convertToDto).orElse(null)));
+    }
 
-        return spaceRepository.findByIdAndUserId(spaceId, user.getId())
-                .map(this::convertToDto); // Convert the Optional<Space> to Optional<SpaceDto>
+    // The user's id, for writes whose filter carries the ownership condition
+    public String resolveUserId(String userEmail) {
+        String userId = userIdsByEmail.getOrLoad(userEmail,
+                email -> userRepository.findByEmail(email).map(User::getId).orElse(null));
+        if (userId == null) {
+            throw new ResourceNotFoundException("User not found with email: " + userEmail);
+        }
+        return userId;
+    }
+
+    public Map<String, ExpiringCache.Stats> getCacheStats() {
+        return Map.of(
+                "userIdsByEmail", userIdsByEmail.stats(),
+                "spacesById", spacesById.stats(),
+                "spacesBySlug", spacesBySlug.stats());
+    }
+
+    private void cache(SpaceDto space) {
+        spacesById.put(space.getId(), space);
+        spacesBySlug.put(space.getSlug(), space);
+    }
+
+    private void evict(Space space) {
+        spacesById.evict(space.getId());
+        spacesBySlug.evict(space.getSlug());
     }
 
     // UPDATE: Changed return type from Space to SpaceDto
     public SpaceDto updateSpace(String spaceId, SpaceRequest spaceRequest, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        String userId = resolveUserId(userEmail);
         
         // Find the original Space model
-        Space space = spaceRepository.findByIdAndUserId(spaceId, user.getId())
+        Space space = spaceRepository.findByIdAndOwnerId(spaceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Space not found with id: " + spaceId));
         
         space.setName(spaceRequest.getName());
         space.setRedirectUrl(spaceRequest.getRedirectUrl());
         
         Space updatedSpace = spaceRepository.save(space);
+        SpaceDto dto = convertToDto(updatedSpace);
+        cache(dto); // Write-through
+        eventPublisher.publishEvent(new SpaceEvent(SpaceEvent.Type.UPDATED, spaceId));
         
-        // Convert to DTO before returning
-        return convertToDto(updatedSpace);
+        return dto;
     }
 
     public void deleteSpace(String spaceId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
+        String userId = resolveUserId(userEmail);
 
-        Space space = spaceRepository.findByIdAndUserId(spaceId, user.getId())
+        Space space = spaceRepository.findByIdAndOwnerId(spaceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Space not found with id: " + spaceId));
         
-        // TODO: Also delete all reviews associated with this space (Cascade delete)
-        // reviewRepository.deleteAll(reviewRepository.findBySpaceId(spaceId));
-        
-        // Remove space from user's list
-        user.getSpaces().remove(space);
-        userRepository.save(user);
-        
         // Delete the space
         spaceRepository.delete(space);
+        // Cascade: the space's reviews are removed in batches by a background job
+        spaceDeletionService.schedule(spaceId, userId);
+        evict(space);
+        spaceStatsService.delete(spaceId);
+        eventPublisher.publishEvent(new SpaceEvent(SpaceEvent.Type.DELETED, spaceId));
+    }
+
+    // Progress of the background review cleanup after a delete
+    public SpaceDeletionStatusDto getDeletionStatus(String spaceId, String userEmail) {
+        return spaceDeletionService.getStatus(spaceId, resolveUserId(userEmail));
     }
-}
\ No newline at end of file
+}
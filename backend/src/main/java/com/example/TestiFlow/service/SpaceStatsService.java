@@ -0,0 +1,187 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.SpaceStatsDto;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.model.SpaceStats;
+import com.example.TestiFlow.repository.ReviewRepository;
+import com.example.TestiFlow.repository.SpaceRepository;
+import com.example.TestiFlow.repository.SpaceStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maintains the per-space SpaceStats document incrementally and answers stats reads in O(1).
+ */
+@Service
+public class SpaceStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpaceStatsService.class);
+
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM").withZone(ZoneOffset.UTC);
+
+    @Autowired
+    private SpaceStatsRepository spaceStatsRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private SpaceRepository spaceRepository;
+
+    // Set to true for one start to recompute every space's stats from scratch
+    @Value("${testiflow.stats.rebuild-all-on-startup:false}")
+    private boolean rebuildAllOnStartup;
+
+    // Called when a space is created, so its counters start from an exact zero
+    public void initialize(String spaceId) {
+        spaceStatsRepository.save(new SpaceStats(spaceId));
+    }
+
+    public void delete(String spaceId) {
+        spaceStatsRepository.deleteById(spaceId);
+    }
+
+    public void recordSubmitted(Review review) {
+        spaceStatsRepository.increment(review.getSpaceId(), reviewDeltas(review, 1));
+    }
+
+    public void recordDeleted(Review review) {
+        spaceStatsRepository.increment(review.getSpaceId(), reviewDeltas(review, -1));
+    }
+
+    // review is the state after the toggle
+    public void recordLikeToggled(Review review) {
+        spaceStatsRepository.increment(review.getSpaceId(), Map.of("likedCount", review.isLiked() ? 1L : -1L));
+    }
+
+    // Batch variants: deltas are summed per space, so a batch costs one update per space touched
+
+    public void recordSubmitted(Collection<Review> reviews) {
+        incrementPerSpace(reviews, review -> reviewDeltas(review, 1));
+    }
+
+    public void recordDeleted(Collection<Review> reviews) {
+        incrementPerSpace(reviews, review -> reviewDeltas(review, -1));
+    }
+
+    public void recordLikeToggled(Collection<Review> reviews) {
+        incrementPerSpace(reviews, review -> Map.of("likedCount", review.isLiked() ? 1L : -1L));
+    }
+
+    private void incrementPerSpace(Collection<Review> reviews, Function<Review, Map<String, Long>> deltasOf) {
+        Map<String, Map<String, Long>> bySpace = new HashMap<>();
+        for (Review review : reviews) {
+            Map<String, Long> total = bySpace.computeIfAbsent(review.getSpaceId(), id -> new HashMap<>());
+            deltasOf.apply(review).forEach((field, delta) -> total.merge(field, delta, Long::sum));
+        }
+        bySpace.forEach(spaceStatsRepository::increment);
+    }
+
+    private Map<String, Long> reviewDeltas(Review review, long sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("totalCount", sign);
+        deltas.put("ratingSum", sign * review.getRating());
+        deltas.put("ratingHistogram." + review.getRating(), sign);
+        if (review.isLiked()) {
+            deltas.put("likedCount", sign);
+        }
+        if (review.getCreatedAt() != null) {
+            deltas.put("monthly." + MONTH.format(review.getCreatedAt()), sign);
+        }
+        return deltas;
+    }
+
+    /**
+     * Reads the stats document; spaces that predate stats tracking get it built on first read.
+     * Concurrent first reads may each compute it, but only one replaces the counters.
+     * Callers are responsible for the ownership check.
+     */
+    public SpaceStatsDto getStats(String spaceId) {
+        return convertToDto(rebuild(spaceId, true));
+    }
+
+    /**
+     * Recomputes a space's stats from its reviews and replaces the stored counters, unless an
+     * increment lands while the aggregation runs: then it recomputes, so that increment is never
+     * overwritten. Under sustained writes it gives up after a few attempts and keeps the
+     * incrementally maintained counters.
+     */
+    public SpaceStats rebuild(String spaceId) {
+        return rebuild(spaceId, false);
+    }
+
+    private SpaceStats rebuild(String spaceId, boolean onlyIfNeeded) {
+        for (int attempt = 1; ; attempt++) {
+            SpaceStats current = spaceStatsRepository.findById(spaceId).orElse(null);
+            if (onlyIfNeeded && current != null && !current.isRebuildNeeded()) {
+                return current;
+            }
+            SpaceStats stats = reviewRepository.computeStats(spaceId);
+            stats.setRebuiltAt(Instant.now());
+            stats.setVersion(current == null ? 0 : current.getVersion() + 1);
+            if (spaceStatsRepository.replaceIfVersion(stats, current == null ? null : current.getVersion())) {
+                return stats;
+            }
+            if (attempt >= MAX_REBUILD_ATTEMPTS) {
+                log.warn("Stats of space {} kept changing during rebuild; keeping the incremental counters", spaceId);
+                return spaceStatsRepository.findById(spaceId).orElse(stats);
+            }
+        }
+    }
+
+    public SpaceStatsDto rebuildStats(String spaceId) {
+        return convertToDto(rebuild(spaceId));
+    }
+
+    public int rebuildAll() {
+        int rebuilt = 0;
+        for (Space space : spaceRepository.findAll()) {
+            rebuild(space.getId());
+            rebuilt++;
+        }
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAllOnStartup() {
+        if (!rebuildAllOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                log.info("Rebuilt stats for {} spaces", rebuildAll());
+            } catch (Exception ex) {
+                log.error("Stats rebuild failed", ex);
+            }
+        }, "space-stats-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private SpaceStatsDto convertToDto(SpaceStats stats) {
+        SpaceStatsDto dto = new SpaceStatsDto();
+        dto.setSpaceId(stats.getSpaceId());
+        dto.setTotalCount(stats.getTotalCount());
+        dto.setLikedCount(stats.getLikedCount());
+        dto.setAverageRating(stats.getTotalCount() == 0 ? 0.0 : (double) stats.getRatingSum() / stats.getTotalCount());
+        dto.setRatingHistogram(stats.getRatingHistogram());
+        dto.setMonthly(stats.getMonthly());
+        return dto;
+    }
+}
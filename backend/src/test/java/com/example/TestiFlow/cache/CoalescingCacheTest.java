@@ -0,0 +1,94 @@
+package com.example.TestiFlow.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingCacheTest {
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingCache<String, String> cache = new CoalescingCache<>(10, Duration.ofMinutes(1), key -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return key.toUpperCase();
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get("a")));
+            }
+            Thread.sleep(100); // Let every caller reach the pending load
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(7);
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        CoalescingCache<String, String> cache = new CoalescingCache<>(10, Duration.ofMinutes(1), key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("down");
+            }
+            return "ok";
+        });
+
+        assertThatThrownBy(() -> cache.get("a")).isInstanceOf(IllegalStateException.class).hasMessage("down");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("a")).isEqualTo("ok");
+    }
+
+    @Test
+    void expiredAndEvictedEntriesAreLoadedAgain() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CoalescingCache<String, Integer> shortLived = new CoalescingCache<>(10, Duration.ofMillis(20), key -> loads.incrementAndGet());
+
+        assertThat(shortLived.get("a")).isEqualTo(1);
+        assertThat(shortLived.get("a")).isEqualTo(1);
+        Thread.sleep(40);
+        assertThat(shortLived.get("a")).isEqualTo(2);
+
+        shortLived.evict("a");
+        assertThat(shortLived.stats().evictions()).isEqualTo(1);
+        assertThat(shortLived.get("a")).isEqualTo(3);
+    }
+
+    @Test
+    void sizeStaysWithinTheLimit() {
+        CoalescingCache<Integer, Integer> cache = new CoalescingCache<>(3, Duration.ofMinutes(1), key -> key);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        assertThat(cache.stats().evictions()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.TestiFlow.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+    @Test
+    void loadedValuesAreCachedUntilEvicted() {
+        assertThat(cache.getOrLoad("a", key -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.getOrLoad("a", key -> "reloaded")).isEqualTo("loaded");
+
+        cache.evict("a");
+
+        assertThat(cache.getOrLoad("a", key -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void anEvictDuringTheLoadKeepsTheLoadedValueOutOfTheCache() {
+        // The load read the space, then a delete evicted it before the load could store it
+        String loaded = cache.getOrLoad("a", key -> {
+            cache.evict(key);
+            return "deleted meanwhile";
+        });
+
+        assertThat(loaded).isEqualTo("deleted meanwhile"); // This caller still gets what it read
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void aWriteThroughDuringTheLoadIsNotOverwritten() {
+        cache.getOrLoad("a", key -> {
+            cache.put(key, "updated");
+            return "stale";
+        });
+
+        assertThat(cache.get("a")).isEqualTo("updated");
+    }
+
+    @Test
+    void aClearDuringTheLoadKeepsTheLoadedValueOutOfTheCache() {
+        cache.getOrLoad("a", key -> {
+            cache.clear();
+            return "stale";
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+}
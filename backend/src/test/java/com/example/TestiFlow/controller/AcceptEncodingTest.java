@@ -0,0 +1,33 @@
+package com.example.TestiFlow.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @Test
+    void gzipIsAcceptedWhenListedWithoutAZeroQ() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br, GZIP;q=0.5")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("x-gzip")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("identity, *")).isTrue();
+    }
+
+    @Test
+    void aZeroQRefusesGzip() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip; q=0.0, br")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0, *")).isFalse(); // Explicit beats the wildcard
+        assertThat(AcceptEncoding.acceptsGzip("*;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=oops")).isFalse();
+    }
+
+    @Test
+    void otherCodingsOrNoHeaderMeanNoGzip() {
+        assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("br, deflate")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzipped")).isFalse();
+    }
+}
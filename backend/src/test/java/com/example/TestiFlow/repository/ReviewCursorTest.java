@@ -0,0 +1,43 @@
+package com.example.TestiFlow.repository;
+
+import com.example.TestiFlow.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        ReviewCursor cursor = new ReviewCursor(Instant.parse("2026-03-01T12:30:45.123Z"), "65f0c0ffee0000000000abcd");
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+"); // URL-safe, no padding
+        assertThat(ReviewCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void idMayContainTheSeparator() {
+        ReviewCursor cursor = new ReviewCursor(Instant.ofEpochMilli(0), "a:b:c");
+
+        assertThat(ReviewCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("12345".getBytes(StandardCharsets.UTF_8));
+        String notANumber = Base64.getUrlEncoder().encodeToString("soon:abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[] {"not base64!", noSeparator, notANumber}) {
+            assertThatThrownBy(() -> ReviewCursor.decode(cursor))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+}
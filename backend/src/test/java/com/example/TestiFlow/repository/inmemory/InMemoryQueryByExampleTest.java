@@ -0,0 +1,123 @@
+package com.example.TestiFlow.repository.inmemory;
+
+import com.example.TestiFlow.model.Review;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryQueryByExampleTest {
+
+    // Primitives are always part of a probe, as they are for Mongo, so most examples ignore them
+    private static final ExampleMatcher IGNORE_PRIMITIVES = ExampleMatcher.matching().withIgnorePaths("rating", "liked");
+
+    private InMemoryReviewRepository reviewRepository;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = new InMemoryReviewRepository();
+        reviewRepository.save(new Review("a", "owner", "Ann", null, 5, "Great"));
+        reviewRepository.save(new Review("a", "owner", "Bob", null, 3, "Fine"));
+        reviewRepository.save(new Review("b", "owner", "Annabel", null, 5, "Great too"));
+    }
+
+    private static Review probe(String spaceId, String authorName) {
+        Review probe = new Review();
+        probe.setSpaceId(spaceId);
+        probe.setAuthorName(authorName);
+        return probe;
+    }
+
+    @Test
+    void nonNullPropertiesMustAllBeEqual() {
+        Example<Review> inSpaceA = Example.of(probe("a", null), IGNORE_PRIMITIVES);
+
+        assertThat(reviewRepository.findAll(inSpaceA, Sort.by("authorName").descending()))
+                .extracting(Review::getAuthorName).containsExactly("Bob", "Ann");
+        assertThat(reviewRepository.count(inSpaceA)).isEqualTo(2);
+        assertThat(reviewRepository.findOne(Example.of(probe("a", "Bob"), IGNORE_PRIMITIVES)))
+                .hasValueSatisfying(review -> assertThat(review.getRating()).isEqualTo(3));
+        assertThat(reviewRepository.exists(Example.of(probe("b", "Bob"), IGNORE_PRIMITIVES))).isFalse();
+    }
+
+    @Test
+    void primitivesTakePartUnlessIgnored() {
+        Review fiveStars = probe(null, null);
+        fiveStars.setRating(5);
+
+        assertThat(reviewRepository.findAll(Example.of(fiveStars, ExampleMatcher.matching().withIgnorePaths("liked"))))
+                .extracting(Review::getAuthorName).containsExactlyInAnyOrder("Ann", "Annabel");
+        assertThat(reviewRepository.count(Example.of(fiveStars))).isEqualTo(2); // liked=false matches everything here
+    }
+
+    @Test
+    void stringMatchingAnyModeAndPaging() {
+        ExampleMatcher startsWithIgnoringCase = IGNORE_PRIMITIVES
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING).withIgnoreCase();
+        Example<Review> ann = Example.of(probe(null, "ann"), startsWithIgnoringCase);
+
+        Page<Review> page = reviewRepository.findAll(ann, PageRequest.of(0, 1, Sort.by("authorName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Review::getAuthorName).containsExactly("Ann");
+        ExampleMatcher inSpaceBOrByBob = ExampleMatcher.matchingAny().withIgnorePaths("rating", "liked");
+        assertThat(reviewRepository.count(Example.of(probe("b", "Bob"), inSpaceBOrByBob))).isEqualTo(2);
+    }
+
+    @Test
+    void fluentQueriesSortLimitAndInsistOnOneResult() {
+        Example<Review> inSpaceA = Example.of(probe("a", null), IGNORE_PRIMITIVES);
+
+        List<Review> first = reviewRepository.findBy(inSpaceA, query -> query.sortBy(Sort.by("authorName")).limit(1).all());
+        boolean exists = reviewRepository.findBy(inSpaceA, FluentQuery.FetchableFluentQuery::exists);
+
+        assertThat(first).extracting(Review::getAuthorName).containsExactly("Ann");
+        assertThat(exists).isTrue();
+        assertThatThrownBy(() -> reviewRepository.findBy(inSpaceA, FluentQuery.FetchableFluentQuery::oneValue))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+        assertThatThrownBy(() -> reviewRepository.findOne(inSpaceA))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+    }
+
+    interface AuthorOnly {
+        String getAuthorName();
+    }
+
+    record AuthorAndRating(String authorName, int rating) {
+    }
+
+    @Test
+    void fluentQueriesProjectToInterfacesAndDtos() {
+        Example<Review> inSpaceA = Example.of(probe("a", null), IGNORE_PRIMITIVES);
+
+        List<AuthorOnly> authors = reviewRepository.findBy(inSpaceA,
+                query -> query.sortBy(Sort.by("authorName")).as(AuthorOnly.class).all());
+        AuthorAndRating bob = reviewRepository.findBy(Example.of(probe("a", "Bob"), IGNORE_PRIMITIVES),
+                query -> query.as(AuthorAndRating.class).oneValue());
+        Page<AuthorAndRating> page = reviewRepository.findBy(inSpaceA,
+                query -> query.as(AuthorAndRating.class).page(PageRequest.of(0, 1, Sort.by("rating"))));
+
+        assertThat(authors).extracting(AuthorOnly::getAuthorName).containsExactly("Ann", "Bob");
+        assertThat(bob).isEqualTo(new AuthorAndRating("Bob", 3));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).containsExactly(new AuthorAndRating("Bob", 3));
+    }
+
+    @Test
+    void resultsAreCopies() {
+        Review found = reviewRepository.findOne(Example.of(probe("a", "Ann"), IGNORE_PRIMITIVES)).orElseThrow();
+        found.setText("Changed");
+
+        assertThat(reviewRepository.findById(found.getId())).hasValueSatisfying(review -> assertThat(review.getText()).isEqualTo("Great"));
+    }
+}
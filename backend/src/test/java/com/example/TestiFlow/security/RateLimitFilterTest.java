@@ -0,0 +1,132 @@
+package com.example.TestiFlow.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxBuckets", 100_000);
+        // Submissions: 10 a minute (one every 6 s) per client with a burst of 5; spaces effectively unlimited
+        ReflectionTestUtils.setField(filter, "submitClientPerMinute", 10);
+        ReflectionTestUtils.setField(filter, "submitClientBurst", 5);
+        ReflectionTestUtils.setField(filter, "submitSpacePerMinute", 60_000);
+        ReflectionTestUtils.setField(filter, "submitSpaceBurst", 1_000);
+        // Embeds: clients effectively unlimited, 60 a minute per space with a burst of 2
+        ReflectionTestUtils.setField(filter, "embedClientPerMinute", 60_000);
+        ReflectionTestUtils.setField(filter, "embedClientBurst", 1_000);
+        ReflectionTestUtils.setField(filter, "embedSpacePerMinute", 60);
+        ReflectionTestUtils.setField(filter, "embedSpaceBurst", 2);
+        filter.init();
+
+        now = TimeUnit.DAYS.toNanos(1);
+        filter.nanoClock = () -> now;
+    }
+
+    private MockHttpServletResponse send(String method, String path, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse submit(String client) throws Exception {
+        return send("POST", "/api/reviews/acme", client);
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void burstIsAllowedThenRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(submit("10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = submit("10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("6");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+        assertThat(filter.getStats().allowed()).isEqualTo(5);
+        assertThat(filter.getStats().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            submit("10.0.0.1");
+        }
+
+        advanceMillis(5_900);
+        MockHttpServletResponse early = submit("10.0.0.1");
+        assertThat(early.getStatus()).isEqualTo(429);
+        assertThat(early.getHeader("Retry-After")).isEqualTo("1"); // Rounded up, never 0
+
+        advanceMillis(100);
+        assertThat(submit("10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(submit("10.0.0.1").getStatus()).isEqualTo(429);
+
+        // After a full minute idle the whole burst is available again, and no more
+        advanceMillis(60_000);
+        for (int i = 0; i < 5; i++) {
+            assertThat(submit("10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(submit("10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void clientsHaveSeparateBucketsButShareTheSpaceBucket() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            submit("10.0.0.1");
+        }
+        assertThat(submit("10.0.0.2").getStatus()).isEqualTo(200);
+
+        assertThat(send("GET", "/api/embed/space1", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/embed/space1", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/embed/space1", "10.0.0.3").getStatus()).isEqualTo(429);
+        assertThat(send("GET", "/api/embed/space2", "10.0.0.3").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(send("GET", "/api/reviews/space1", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(filter.getStats().buckets()).isZero();
+    }
+
+    @Test
+    void sweepDropsOnlyBucketsThatHaveRefilledCompletely() throws Exception {
+        submit("10.0.0.1"); // Its client bucket is full again 6 s later, the space bucket after 1 ms
+        advanceMillis(3_000);
+        submit("10.0.0.2");
+        assertThat(filter.getStats().buckets()).isEqualTo(3);
+
+        advanceMillis(4_000); // 10.0.0.1 and the space are full again; 10.0.0.2 isn't yet
+        filter.evictIdle();
+        assertThat(filter.getStats().buckets()).isEqualTo(1);
+
+        advanceMillis(6_000);
+        filter.evictIdle();
+        assertThat(filter.getStats().buckets()).isZero();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.ReviewDto;
+import com.example.TestiFlow.event.ReviewEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ReviewFeedHubTest {
+
+    private static final String SPACE_ID = "space";
+
+    private final CountDownLatch sendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseSend = new CountDownLatch(1);
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    private ReviewFeedHub hub;
+
+    /**
+     * An emitter whose client has stopped reading: send() blocks, and like Spring's emitter it
+     * holds the lock complete() needs while it does.
+     */
+    private class StuckEmitter extends SseEmitter {
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writeLock.lock();
+            try {
+                sendStarted.countDown();
+                releaseSend.await();
+                throw new IOException("Broken pipe");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void complete() {
+            writeLock.lock();
+            try {
+                completed.countDown();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        hub = new ReviewFeedHub();
+        ReflectionTestUtils.setField(hub, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(hub, "queueCapacity", 2);
+        ReflectionTestUtils.setField(hub, "connectionTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(hub, "maxSubscribersPerSpace", 10);
+        hub.emitterFactory = StuckEmitter::new;
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSend.countDown();
+        hub.shutdown();
+    }
+
+    private ReviewEvent submitted() {
+        return new ReviewEvent(ReviewEvent.Type.SUBMITTED, SPACE_ID, new ReviewDto());
+    }
+
+    @Test
+    void aClientStuckInSendDoesNotBlockPublishing() throws InterruptedException {
+        hub.subscribe(SPACE_ID);
+        assertThat(sendStarted.await(5, TimeUnit.SECONDS)).isTrue(); // The writer holds the lock from here on
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 10; i++) {
+                hub.onReviewEvent(submitted()); // Fills the queue, then disconnects the client
+            }
+            hub.sendHeartbeats();
+        });
+
+        assertThat(hub.getStats().slowDisconnects()).isEqualTo(1);
+        assertThat(hub.getStats().subscribers()).isZero();
+        assertThat(completed.getCount()).isEqualTo(1); // Still waiting for the send
+
+        releaseSend.countDown();
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue(); // Completed by the writer once free
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.ReviewExportFormat;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.repository.inmemory.InMemoryReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewServiceExportTest {
+
+    private static final String SPACE_ID = "space";
+
+    private InMemoryReviewRepository reviewRepository;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = new InMemoryReviewRepository();
+        reviewService = new ReviewService();
+        ReflectionTestUtils.setField(reviewService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(reviewService, "exportBatchSize", 2);
+        ReflectionTestUtils.setField(reviewService, "exportFlushEvery", 2);
+    }
+
+    private Review review(String authorName, String text) {
+        Review review = new Review(SPACE_ID, "owner", authorName, "ann@example.com", 4, text);
+        review.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        return reviewRepository.save(review);
+    }
+
+    private String csv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reviewService.exportReviews(SPACE_ID, ReviewExportFormat.CSV, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void plainFieldsAreWrittenAsIsWithAHeaderAndCrlfRows() throws IOException {
+        String id = review("Ann", "Great service").getId();
+
+        assertThat(csv()).isEqualTo("id,authorName,authorEmail,rating,text,liked,createdAt\r\n"
+                + id + ",Ann,ann@example.com,4,Great service,false,2026-01-01T00:00:00Z\r\n");
+    }
+
+    @Test
+    void commasQuotesAndLineBreaksAreQuoted() throws IOException {
+        String id = review("Smith, Ann", "She said \"wow\"\nand left").getId();
+
+        assertThat(csv()).endsWith(id + ",\"Smith, Ann\",ann@example.com,4,\"She said \"\"wow\"\"\nand left\","
+                + "false,2026-01-01T00:00:00Z\r\n");
+    }
+
+    @Test
+    void formulaLikeValuesArePrefixedSoSpreadsheetsShowThemAsText() throws IOException {
+        review("=HYPERLINK(\"http://evil\")", "+1 would buy");
+        review("@SUM(A1)", "-2 stars, no");
+
+        String csv = csv();
+
+        assertThat(csv).contains(",\"'=HYPERLINK(\"\"http://evil\"\")\",", ",'+1 would buy,");
+        assertThat(csv).contains(",'@SUM(A1),", ",\"'-2 stars, no\",");
+    }
+
+    @Test
+    void emptySpaceExportsOnlyTheHeader() throws IOException {
+        assertThat(csv()).isEqualTo("id,authorName,authorEmail,rating,text,liked,createdAt\r\n");
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.BulkReviewRequest;
+import com.example.TestiFlow.dto.BulkReviewResultDto;
+import com.example.TestiFlow.event.ReviewEvent;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.repository.inmemory.InMemoryReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewServiceModerationTest {
+
+    private static final String EMAIL = "owner@example.com";
+    private static final String OWNER_ID = "owner";
+
+    /**
+     * Runs meanwhile right after the ownership read, standing in for a request that lands between
+     * moderate's read and its write.
+     */
+    private static class RacingReviewRepository extends InMemoryReviewRepository {
+        Runnable meanwhile = () -> { };
+
+        @Override
+        public List<Review> findOwned(Collection<String> ids, String ownerId) {
+            List<Review> owned = super.findOwned(ids, ownerId);
+            meanwhile.run();
+            return owned;
+        }
+    }
+
+    private RacingReviewRepository reviewRepository;
+    private SpaceStatsService spaceStatsService;
+    private ApplicationEventPublisher eventPublisher;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = new RacingReviewRepository();
+        spaceStatsService = mock(SpaceStatsService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        SpaceService spaceService = mock(SpaceService.class);
+        when(spaceService.resolveUserId(EMAIL)).thenReturn(OWNER_ID);
+
+        reviewService = new ReviewService();
+        ReflectionTestUtils.setField(reviewService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(reviewService, "spaceService", spaceService);
+        ReflectionTestUtils.setField(reviewService, "spaceStatsService", spaceStatsService);
+        ReflectionTestUtils.setField(reviewService, "eventPublisher", eventPublisher);
+    }
+
+    private String review(String ownerId, boolean liked) {
+        Review review = new Review("space", ownerId, "Ann", "ann@example.com", 5, "Great");
+        review.setLiked(liked);
+        return reviewRepository.save(review).getId();
+    }
+
+    private BulkReviewResultDto moderate(String action, String... ids) {
+        BulkReviewRequest request = new BulkReviewRequest();
+        request.setAction(action);
+        request.setIds(List.of(ids));
+        return reviewService.moderate(request, EMAIL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Review> recorded(boolean deleted) {
+        ArgumentCaptor<Collection<Review>> captor = ArgumentCaptor.forClass(Collection.class);
+        if (deleted) {
+            verify(spaceStatsService).recordDeleted(captor.capture());
+        } else {
+            verify(spaceStatsService).recordLikeToggled(captor.capture());
+        }
+        return List.copyOf(captor.getValue());
+    }
+
+    @Test
+    void reportsEachIdAndCountsOnlyTheChangedOnes() {
+        String unliked = review(OWNER_ID, false);
+        String alreadyLiked = review(OWNER_ID, true);
+        String someoneElses = review("other", false);
+
+        BulkReviewResultDto result = moderate("like", unliked, alreadyLiked, someoneElses, "missing", unliked);
+
+        assertThat(result.getChanged()).isEqualTo(1);
+        assertThat(result.getResults()).containsExactly(
+                Map.entry(unliked, "liked"),
+                Map.entry(alreadyLiked, "unchanged"),
+                Map.entry(someoneElses, "not_found"),
+                Map.entry("missing", "not_found"));
+        assertThat(recorded(false)).extracting(Review::getId).containsExactly(unliked);
+        assertThat(reviewRepository.findById(someoneElses).orElseThrow().isLiked()).isFalse();
+    }
+
+    @Test
+    void likeToggledByAnotherRequestInBetweenIsNotCountedTwice() {
+        String first = review(OWNER_ID, false);
+        String second = review(OWNER_ID, false);
+        reviewRepository.meanwhile = () -> reviewRepository.toggleLike(second, OWNER_ID);
+
+        BulkReviewResultDto result = moderate("like", first, second);
+
+        assertThat(result.getChanged()).isEqualTo(1);
+        assertThat(result.getResults()).containsEntry(first, "liked").containsEntry(second, "unchanged");
+        assertThat(recorded(false)).extracting(Review::getId).containsExactly(first);
+        verify(eventPublisher, times(1)).publishEvent(any(ReviewEvent.class));
+    }
+
+    @Test
+    void reviewDeletedByAnotherRequestInBetweenIsNotCountedTwice() {
+        String first = review(OWNER_ID, true);
+        String second = review(OWNER_ID, true);
+        reviewRepository.meanwhile = () -> reviewRepository.deleteOwned(second, OWNER_ID);
+
+        BulkReviewResultDto result = moderate("delete", first, second);
+
+        assertThat(result.getChanged()).isEqualTo(1);
+        assertThat(result.getResults()).containsEntry(first, "deleted").containsEntry(second, "unchanged");
+        assertThat(recorded(true)).extracting(Review::getId).containsExactly(first);
+        verify(eventPublisher, times(1)).publishEvent(any(ReviewEvent.class));
+        assertThat(reviewRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.ReviewDto;
+import com.example.TestiFlow.dto.ReviewPageDto;
+import com.example.TestiFlow.dto.ReviewPageRequest;
+import com.example.TestiFlow.dto.SpaceDto;
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.repository.inmemory.InMemoryReviewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewServicePagingTest {
+
+    private static final String EMAIL = "owner@example.com";
+    private static final String SPACE_ID = "space";
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private InMemoryReviewRepository reviewRepository;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = new InMemoryReviewRepository();
+        SpaceService spaceService = mock(SpaceService.class);
+        when(spaceService.getSpaceByIdAndUser(SPACE_ID, EMAIL)).thenReturn(Optional.of(new SpaceDto()));
+
+        reviewService = new ReviewService();
+        ReflectionTestUtils.setField(reviewService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(reviewService, "spaceService", spaceService);
+        ReflectionTestUtils.setField(reviewService, "meterRegistry", new SimpleMeterRegistry());
+        reviewService.initMetrics();
+    }
+
+    private Review review(long secondsAfterT0, int rating) {
+        Review review = new Review(SPACE_ID, "owner", "Ann", "ann@example.com", rating, "Great");
+        review.setCreatedAt(T0.plusSeconds(secondsAfterT0));
+        return reviewRepository.save(review);
+    }
+
+    private List<String> allPages(ReviewPageRequest request) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            request.setCursor(cursor);
+            ReviewPageDto page = reviewService.getReviewsForSpace(SPACE_ID, EMAIL, request);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(request.effectiveLimit());
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            page.getItems().stream().map(ReviewDto::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void pagesCoverEveryReviewOnceNewestFirstWithTiesBrokenById() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            reviews.add(review(i / 3, 5)); // Three reviews per second: page boundaries fall inside ties
+        }
+        ReviewPageRequest request = new ReviewPageRequest();
+        request.setLimit(2);
+
+        List<String> expected = reviews.stream()
+                .sorted(Comparator.comparing(Review::getCreatedAt).thenComparing(Review::getId).reversed())
+                .map(Review::getId)
+                .toList();
+        assertThat(allPages(request)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void reviewsWithinOneMillisecondAreNeitherRepeatedNorSkipped() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Review review = new Review(SPACE_ID, "owner", "Ann", "ann@example.com", 5, "Great");
+            review.setCreatedAt(T0.plusNanos(100_000L * (i + 1))); // Finer than the cursor's milliseconds
+            ids.add(reviewRepository.save(review).getId());
+        }
+        ReviewPageRequest request = new ReviewPageRequest();
+        request.setLimit(2);
+
+        assertThat(allPages(request)).containsExactlyElementsOf(ids.reversed()); // One timestamp, newest id first
+        request.setSort("oldest");
+        assertThat(allPages(request)).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void oldestFirstWithFiltersPagesInAscendingOrder() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Review review = review(i, i % 2 == 0 ? 5 : 1);
+            if (review.getRating() == 5) {
+                expected.add(review.getId());
+            }
+        }
+        ReviewPageRequest request = new ReviewPageRequest();
+        request.setLimit(1);
+        request.setSort("oldest");
+        request.setMinRating(4);
+
+        assertThat(allPages(request)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void aReviewArrivingBetweenPagesDoesNotShiftTheNextPage() {
+        for (int i = 0; i < 4; i++) {
+            review(i, 5);
+        }
+        ReviewPageRequest request = new ReviewPageRequest();
+        request.setLimit(2);
+        ReviewPageDto first = reviewService.getReviewsForSpace(SPACE_ID, EMAIL, request);
+
+        review(100, 5); // Newer than everything: belongs before page one, not on page two
+        request.setCursor(first.getNextCursor());
+        ReviewPageDto second = reviewService.getReviewsForSpace(SPACE_ID, EMAIL, request);
+
+        assertThat(second.getItems()).extracting(ReviewDto::getCreatedAt)
+                .containsExactly(T0.plusSeconds(1), T0);
+        assertThat(second.isHasMore()).isFalse();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.dto.SpaceRequest;
+import com.example.TestiFlow.exception.ServiceBusyException;
+import com.example.TestiFlow.model.Space;
+import com.example.TestiFlow.model.User;
+import com.example.TestiFlow.repository.SlugCounterRepository;
+import com.example.TestiFlow.repository.SpaceRepository;
+import com.example.TestiFlow.repository.UserRepository;
+import com.example.TestiFlow.repository.inmemory.InMemorySlugCounterRepository;
+import com.example.TestiFlow.repository.inmemory.InMemorySpaceRepository;
+import com.example.TestiFlow.repository.inmemory.InMemoryUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpaceServiceSlugTest {
+
+    private static final String EMAIL = "owner@example.com";
+
+    private SpaceService spaceService;
+    private SpaceRepository spaceRepository;
+    private SlugCounterRepository slugCounterRepository;
+    private String ownerId;
+
+    @BeforeEach
+    void setUp() {
+        spaceRepository = new InMemorySpaceRepository();
+        slugCounterRepository = new InMemorySlugCounterRepository();
+        UserRepository userRepository = new InMemoryUserRepository();
+        ownerId = userRepository.save(new User("Owner", EMAIL, "hash")).getId();
+        spaceService = newService(spaceRepository, userRepository);
+    }
+
+    private SpaceService newService(SpaceRepository spaces, UserRepository users) {
+        SpaceService service = new SpaceService(100, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "spaceRepository", spaces);
+        ReflectionTestUtils.setField(service, "userRepository", users);
+        ReflectionTestUtils.setField(service, "slugCounterRepository", slugCounterRepository);
+        ReflectionTestUtils.setField(service, "spaceStatsService", mock(SpaceStatsService.class));
+        ReflectionTestUtils.setField(service, "spaceDeletionService", mock(SpaceDeletionService.class));
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        return service;
+    }
+
+    private String create(String name) {
+        SpaceRequest request = new SpaceRequest();
+        request.setName(name);
+        request.setRedirectUrl("https://example.com");
+        return spaceService.createSpace(request, EMAIL).getSlug();
+    }
+
+    private void existing(String slug) {
+        Space space = new Space();
+        space.setName(slug);
+        space.setSlug(slug);
+        space.setOwnerId(ownerId);
+        spaceRepository.insert(space);
+    }
+
+    @Test
+    void firstSpaceOfABaseGetsTheBareSlugThenSuffixes() {
+        assertThat(create("Acme")).isEqualTo("acme");
+        assertThat(create("Acme")).isEqualTo("acme-1");
+        assertThat(create("ACME!")).isEqualTo("acme-2");
+    }
+
+    @Test
+    void counterIsSeededPastTheHighestExistingSuffix() {
+        // Spaces created before the counter existed
+        existing("acme");
+        existing("acme-3");
+        existing("acme-corp"); // Another base that merely shares the prefix
+
+        assertThat(create("Acme")).isEqualTo("acme-4");
+        assertThat(create("Acme")).isEqualTo("acme-5");
+    }
+
+    @Test
+    void overlongNumericSuffixIsIgnoredWhenSeeding() {
+        assertThat(create("Acme 99999999999999999999")).isEqualTo("acme-99999999999999999999");
+
+        // Used to fail with NumberFormatException on every create of the base
+        assertThat(create("Acme")).isEqualTo("acme");
+        assertThat(create("Acme")).isEqualTo("acme-1");
+    }
+
+    @Test
+    void takenSlugIsSkipped() {
+        assertThat(create("Acme")).isEqualTo("acme");
+        existing("acme-1"); // Taken behind the counter's back, e.g. by another instance racing the seed
+
+        assertThat(create("Acme")).isEqualTo("acme-2");
+    }
+
+    @Test
+    void exhaustedSlugAttemptsAreA503NotA500() {
+        SpaceRepository alwaysTaken = mock(SpaceRepository.class);
+        when(alwaysTaken.findSlugsMatching(any())).thenReturn(List.of());
+        when(alwaysTaken.insert(any(Space.class))).thenThrow(new DuplicateKeyException("E11000"));
+        spaceService = newService(alwaysTaken, userRepositoryWithOwner());
+
+        assertThatThrownBy(() -> create("Acme")).isInstanceOf(ServiceBusyException.class);
+    }
+
+    private UserRepository userRepositoryWithOwner() {
+        UserRepository users = new InMemoryUserRepository();
+        users.save(new User("Owner", EMAIL, "hash"));
+        return users;
+    }
+}
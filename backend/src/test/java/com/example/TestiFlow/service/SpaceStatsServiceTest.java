@@ -0,0 +1,98 @@
+package com.example.TestiFlow.service;
+
+import com.example.TestiFlow.model.Review;
+import com.example.TestiFlow.model.SpaceStats;
+import com.example.TestiFlow.repository.inmemory.InMemoryReviewRepository;
+import com.example.TestiFlow.repository.inmemory.InMemorySpaceStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceStatsServiceTest {
+
+    private static final String SPACE_ID = "space";
+
+    /**
+     * Runs duringAggregation inside computeStats, standing in for a submission whose $inc lands
+     * while a rebuild is aggregating.
+     */
+    private static class RacingReviewRepository extends InMemoryReviewRepository {
+        Runnable duringAggregation = () -> { };
+
+        @Override
+        public SpaceStats computeStats(String spaceId) {
+            SpaceStats stats = super.computeStats(spaceId);
+            Runnable race = duringAggregation;
+            duringAggregation = () -> { };
+            race.run();
+            return stats;
+        }
+    }
+
+    private RacingReviewRepository reviewRepository;
+    private InMemorySpaceStatsRepository statsRepository;
+    private SpaceStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = new RacingReviewRepository();
+        statsRepository = new InMemorySpaceStatsRepository();
+        statsService = new SpaceStatsService();
+        ReflectionTestUtils.setField(statsService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(statsService, "spaceStatsRepository", statsRepository);
+    }
+
+    private Review submit(int rating) {
+        Review review = new Review(SPACE_ID, "owner", "Ann", "ann@example.com", rating, "Great");
+        review.setCreatedAt(Instant.now());
+        review = reviewRepository.save(review);
+        statsService.recordSubmitted(review);
+        return review;
+    }
+
+    @Test
+    void incrementOnAMissingDocumentCreatesItAndTheFirstReadRebuildsIt() {
+        Review before = new Review(SPACE_ID, "owner", "Bob", "bob@example.com", 3, "Fine");
+        before.setCreatedAt(Instant.now());
+        reviewRepository.save(before); // Predates stats tracking: never counted
+        submit(5);
+
+        assertThat(statsRepository.findById(SPACE_ID).orElseThrow().isRebuildNeeded()).isTrue();
+        assertThat(statsService.getStats(SPACE_ID).getTotalCount()).isEqualTo(2);
+        assertThat(statsRepository.findById(SPACE_ID).orElseThrow().isRebuildNeeded()).isFalse();
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteAnIncrementThatLandsWhileItAggregates() {
+        statsService.initialize(SPACE_ID);
+        submit(4);
+        reviewRepository.duringAggregation = () -> submit(2);
+
+        SpaceStats rebuilt = statsService.rebuild(SPACE_ID);
+
+        assertThat(rebuilt.getTotalCount()).isEqualTo(2);
+        assertThat(rebuilt.getRatingSum()).isEqualTo(6);
+        assertThat(statsService.getStats(SPACE_ID).getTotalCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deletesAndToggleKeepTheCountersInStepWithARebuild() {
+        statsService.initialize(SPACE_ID);
+        Review kept = submit(5);
+        Review removed = submit(1);
+        reviewRepository.deleteById(removed.getId());
+        statsService.recordDeleted(removed);
+        statsService.recordLikeToggled(reviewRepository.toggleLike(kept.getId(), "owner"));
+
+        SpaceStats incremental = statsRepository.findById(SPACE_ID).orElseThrow();
+        SpaceStats rebuilt = statsService.rebuild(SPACE_ID);
+
+        assertThat(incremental.getTotalCount()).isEqualTo(rebuilt.getTotalCount()).isEqualTo(1);
+        assertThat(incremental.getLikedCount()).isEqualTo(rebuilt.getLikedCount()).isEqualTo(1);
+        assertThat(incremental.getRatingSum()).isEqualTo(rebuilt.getRatingSum()).isEqualTo(5);
+    }
+}
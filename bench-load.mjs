@@ -0,0 +1,73 @@
+#!/usr/bin/env node
+
+// Closed-loop load generator for comparing the backend's threading modes.
+// Each of CONCURRENCY workers sends one request at a time for DURATION seconds;
+// prints throughput, error counts and latency percentiles.
+//
+// Usage:
+//   BASE_URL=http://localhost:8080/api TOKEN=<jwt> SPACE_ID=<id> \
+//   CONCURRENCY=1000 DURATION=60 WARMUP=15 node bench-load.mjs
+
+const baseUrl = process.env.BASE_URL || 'http://localhost:8080/api';
+const token = process.env.TOKEN;
+const spaceId = process.env.SPACE_ID;
+const concurrency = Number(process.env.CONCURRENCY || 200);
+const duration = Number(process.env.DURATION || 60) * 1000;
+const warmup = Number(process.env.WARMUP || 15) * 1000;
+
+if (!token || !spaceId) {
+  console.error('TOKEN and SPACE_ID are required');
+  process.exit(1);
+}
+
+// Authenticated review listing: one ownership check (cached) plus one indexed Mongo query per request,
+// and not subject to the public-endpoint rate limiter
+const url = `${baseUrl}/reviews/${spaceId}?limit=20`;
+const headers = { Authorization: `Bearer ${token}` };
+
+const run = async (millis, record) => {
+  const deadline = Date.now() + millis;
+  const stats = { latencies: [], ok: 0, busy: 0, errors: 0 };
+  const worker = async () => {
+    while (Date.now() < deadline) {
+      const start = process.hrtime.bigint();
+      try {
+        const res = await fetch(url, { headers });
+        await res.arrayBuffer();
+        if (res.ok) stats.ok++;
+        else if (res.status === 503) stats.busy++;
+        else stats.errors++;
+      } catch {
+        stats.errors++;
+      }
+      if (record) stats.latencies.push(Number(process.hrtime.bigint() - start) / 1e6);
+    }
+  };
+  await Promise.all(Array.from({ length: concurrency }, worker));
+  return stats;
+};
+
+const percentile = (sorted, p) => sorted[Math.min(sorted.length - 1, Math.floor((p / 100) * sorted.length))];
+
+console.log(`Warming up for ${warmup / 1000}s at concurrency ${concurrency}...`);
+await run(warmup, false);
+
+console.log(`Measuring for ${duration / 1000}s...`);
+const stats = await run(duration, true);
+const sorted = stats.latencies.sort((a, b) => a - b);
+
+console.log(JSON.stringify({
+  url,
+  concurrency,
+  seconds: duration / 1000,
+  throughputPerSec: +(stats.ok / (duration / 1000)).toFixed(1),
+  ok: stats.ok,
+  shed503: stats.busy,
+  errors: stats.errors,
+  latencyMs: {
+    p50: +percentile(sorted, 50).toFixed(1),
+    p90: +percentile(sorted, 90).toFixed(1),
+    p99: +percentile(sorted, 99).toFixed(1),
+    max: +sorted[sorted.length - 1].toFixed(1),
+  },
+}, null, 2));
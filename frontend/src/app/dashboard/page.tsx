@@ -74,47 +74,22 @@ export default function DashboardPage() {
     try {
       setLoading(true)
       
-      // Load spaces
-      const spacesData = await apiClient.getSpaces()
-      setSpaces(spacesData)
-      
-      // Load reviews for all spaces and calculate stats
-      let allReviews: Review[] = []
-      
-      for (const space of spacesData) {
-        try {
-          const reviews = await apiClient.getReviews(space.id)
-          allReviews = [...allReviews, ...reviews]
-        } catch (error) {
-          console.warn(`Failed to load reviews for space ${space.id}:`, error)
-        }
-      }
-      
-      // Sort reviews by date (most recent first) and take last 3
-      const sortedReviews = allReviews.sort((a, b) => 
-        new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
-      )
-      setRecentReviews(sortedReviews.slice(0, 3))
-      
-      // Calculate stats
+      // Spaces for the list, figures from one server-side summary
       const now = new Date()
       const thisMonth = new Date(now.getFullYear(), now.getMonth(), 1)
-      
-      const thisMonthReviews = allReviews.filter(review => 
-        new Date(review.createdAt) >= thisMonth
-      )
-      
-      const likedReviews = allReviews.filter(review => review.liked)
-      
-      const totalRating = allReviews.reduce((sum, review) => sum + review.rating, 0)
-      const averageRating = allReviews.length > 0 ? totalRating / allReviews.length : 0
+      const [spacesData, summary] = await Promise.all([
+        apiClient.getSpaces(),
+        apiClient.getDashboardSummary(thisMonth.toISOString())
+      ])
+      setSpaces(spacesData)
+      setRecentReviews(summary.recentReviews)
       
       setStats({
-        totalSpaces: spacesData.length,
-        totalTestimonials: allReviews.length,
-        thisMonthTestimonials: thisMonthReviews.length,
-        likedTestimonials: likedReviews.length,
-        averageRating: Math.round(averageRating * 10) / 10
+        totalSpaces: summary.totalSpaces,
+        totalTestimonials: summary.totalReviews,
+        thisMonthTestimonials: summary.thisMonthReviews,
+        likedTestimonials: summary.likedReviews,
+        averageRating: Math.round(summary.averageRating * 10) / 10
       })
       
     } catch (error) {
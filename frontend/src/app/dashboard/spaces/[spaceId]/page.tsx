@@ -89,6 +89,29 @@ export default function SpaceManagementPage() {
     }
   }, [spaceId, loadSpaceData])
 
+  // Apply live changes instead of reloading the whole list
+  useEffect(() => {
+    if (!spaceId) return
+    return apiClient.subscribeToReviewEvents(
+      spaceId,
+      ({ type, review }) => {
+        setReviews(current => {
+          if (type === 'deleted') {
+            return current.filter(r => r.id !== review.id)
+          }
+          if (current.some(r => r.id === review.id)) {
+            return current.map(r => (r.id === review.id ? review : r))
+          }
+          return type === 'submitted' ? [review, ...current] : current
+        })
+      },
+      // Events sent while we were disconnected are lost; catch up once
+      () => {
+        apiClient.getReviews(spaceId).then(setReviews).catch(() => {})
+      }
+    )
+  }, [spaceId])
+
   const handleSave = async () => {
     if (!space) return
 
@@ -143,7 +166,7 @@ export default function SpaceManagementPage() {
   const handleToggleLike = async (reviewId: string) => {
     try {
       const updatedReview = await apiClient.toggleReviewLike(reviewId)
-      setReviews(reviews.map(review => 
+      setReviews(current => current.map(review => 
         review.id === reviewId ? updatedReview : review
       ))
     } catch (error) {
@@ -163,7 +186,7 @@ export default function SpaceManagementPage() {
 
     try {
       await apiClient.deleteReview(reviewId)
-      setReviews(reviews.filter(review => review.id !== reviewId))
+      setReviews(current => current.filter(review => review.id !== reviewId))
       toast.success('Review deleted successfully!')
     } catch (error) {
       console.error('Failed to delete review:', error)
@@ -93,7 +93,7 @@ export default function WallOfLovePage() {
   const [reviews, setReviews] = useState<Review[]>([])
   const [loading, setLoading] = useState(true)
   const [selectedTemplate, setSelectedTemplate] = useState<TemplateType>('grid')
-  const [selectedFramework, setSelectedFramework] = useState<'html' | 'react' | 'nextjs'>('html')
+  const [selectedFramework, setSelectedFramework] = useState<'iframe' | 'html' | 'react' | 'nextjs'>('iframe')
   const [copiedCode, setCopiedCode] = useState(false)
 
   const loadSpaceAndReviews = useCallback(async () => {
@@ -101,12 +101,12 @@ export default function WallOfLovePage() {
       setLoading(true)
       const [spaceData, reviewsData] = await Promise.all([
         apiClient.getSpace(spaceId),
-        apiClient.getReviews(spaceId)
+        apiClient.getReviews(spaceId, { liked: true })
       ])
       
       setSpace(spaceData)
-      // Filter only liked reviews
-      setReviews(reviewsData.filter(review => review.liked))
+      // Only liked reviews are requested from the server
+      setReviews(reviewsData)
     } catch (error) {
       console.error('Failed to load data:', error)
       if (error instanceof ApiError) {
@@ -126,7 +126,9 @@ export default function WallOfLovePage() {
   const generateCode = () => {
     const likedReviews = reviews.filter(review => review.liked)
     
-    if (selectedFramework === 'html') {
+    if (selectedFramework === 'iframe') {
+      return generateIframeCode(selectedTemplate)
+    } else if (selectedFramework === 'html') {
       return generateHTMLCode(likedReviews, selectedTemplate)
     } else if (selectedFramework === 'react') {
       return generateReactCode(likedReviews, selectedTemplate)
@@ -135,6 +137,16 @@ export default function WallOfLovePage() {
     }
   }
 
+  // Rendered and compressed by the backend, and updated there whenever the liked set changes
+  const generateIframeCode = (template: TemplateType) => {
+    return `<iframe
+  src="${apiClient.getEmbedWidgetUrl(spaceId, template)}"
+  title="Testimonials - ${space?.name ?? ''}"
+  loading="lazy"
+  style="width: 100%; height: 480px; border: 0;"
+></iframe>`
+  }
+
   const generateHTMLCode = (reviews: Review[], template: TemplateType) => {
     const reviewsHTML = reviews.map(review => `
     <div class="testimonial-card">
@@ -721,7 +733,7 @@ export default TestimonialsWall;`
                   <div className="space-y-3">
                     <h3 className="text-lg font-semibold text-gray-900">Choose Framework</h3>
                     <div className="flex gap-3">
-                      {(['html', 'react', 'nextjs'] as const).map((framework) => (
+                      {(['iframe', 'html', 'react', 'nextjs'] as const).map((framework) => (
                         <button
                           key={framework}
                           onClick={() => setSelectedFramework(framework)}
@@ -739,6 +751,7 @@ export default TestimonialsWall;`
 
                   {/* Framework Info */}
                   <div className="text-sm text-gray-600 p-4 bg-gray-50 rounded-lg">
+                    {selectedFramework === 'iframe' && '⚡ Hosted widget - stays in sync with your liked testimonials automatically'}
                     {selectedFramework === 'html' && '🌐 Pure HTML with inline CSS - works anywhere'}
                     {selectedFramework === 'react' && '⚛️ React component with Tailwind CSS classes'}
                     {selectedFramework === 'nextjs' && '🚀 Next.js component with TypeScript and Tailwind'}
@@ -17,6 +17,60 @@ export interface ApiResponse<T = any> {
   success: boolean
 }
 
+export interface ReviewItem {
+  id: string
+  spaceId?: string
+  authorName: string
+  authorEmail?: string
+  rating: number
+  text: string
+  liked: boolean
+  createdAt: string
+  updatedAt: string
+}
+
+export interface ReviewPageParams {
+  cursor?: string
+  limit?: number
+  minRating?: number
+  maxRating?: number
+  liked?: boolean
+  from?: string
+  to?: string
+  sort?: 'newest' | 'oldest'
+}
+
+export interface ReviewSearchParams {
+  q: string
+  cursor?: string
+  limit?: number
+  minRating?: number
+  maxRating?: number
+  liked?: boolean
+}
+
+export interface ReviewPage {
+  items: ReviewItem[]
+  nextCursor: string | null
+  hasMore: boolean
+}
+
+export interface DashboardSummary {
+  totalSpaces: number
+  totalReviews: number
+  thisMonthReviews: number
+  likedReviews: number
+  averageRating: number
+  recentReviews: ReviewItem[]
+}
+
+export type ReviewEventType = 'submitted' | 'liked' | 'unliked' | 'deleted'
+
+export interface ReviewEvent {
+  type: ReviewEventType
+  review: ReviewItem
+}
+
 export class ApiClient {
   private baseURL: string
   private defaultHeaders: HeadersInit
@@ -203,17 +257,44 @@ export class ApiClient {
   }
 
   // Review endpoints
-  async getReviews(spaceId: string) {
-    return this.request<Array<{
-      id: string
-      authorName: string
-      authorEmail?: string
-      rating: number
-      text: string
-      liked: boolean
-      createdAt: string
-      updatedAt: string
-    }>>(`/reviews/${spaceId}`)
+  async getReviewsPage(spaceId: string, params: ReviewPageParams = {}) {
+    const query = new URLSearchParams()
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        query.set(key, String(value))
+      }
+    })
+    const qs = query.toString()
+    return this.request<ReviewPage>(`/reviews/${spaceId}${qs ? `?${qs}` : ''}`)
+  }
+
+  // Best matches first; pass nextCursor back as cursor for the next page
+  async searchReviews(spaceId: string, params: ReviewSearchParams) {
+    const query = new URLSearchParams()
+    Object.entries(params).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        query.set(key, String(value))
+      }
+    })
+    return this.request<ReviewPage>(`/reviews/${spaceId}/search?${query.toString()}`)
+  }
+
+  // Walks every page; prefer getReviewsPage for large spaces
+  async getReviews(spaceId: string, params: Omit<ReviewPageParams, 'cursor' | 'limit'> = {}) {
+    const reviews: ReviewItem[] = []
+    let cursor: string | undefined
+    do {
+      const page = await this.getReviewsPage(spaceId, { ...params, cursor, limit: 100 })
+      reviews.push(...(page.items || []))
+      cursor = page.nextCursor || undefined
+    } while (cursor)
+    return reviews
+  }
+
+  // Dashboard endpoints
+  async getDashboardSummary(monthStart?: string) {
+    const qs = monthStart ? `?monthStart=${encodeURIComponent(monthStart)}` : ''
+    return this.request<DashboardSummary>(`/dashboard/summary${qs}`)
   }
 
   async createReview(slug: string, data: {
@@ -249,6 +330,83 @@ export class ApiClient {
     })
   }
 
+  // One request for many reviews; results maps each id to liked/unliked/deleted/unchanged/not_found
+  async moderateReviews(ids: string[], action: 'like' | 'unlike' | 'delete') {
+    return this.request<{
+      action: string
+      changed: number
+      results: Record<string, 'liked' | 'unliked' | 'deleted' | 'unchanged' | 'not_found'>
+    }>('/reviews', {
+      method: 'PATCH',
+      body: JSON.stringify({ ids, action }),
+    })
+  }
+
+  // Live feed of review changes (Server-Sent Events). Uses fetch rather than EventSource so the
+  // Authorization header can be sent; reconnects with backoff and calls onReconnect so the
+  // caller can reload anything missed while disconnected. Returns a function that stops it.
+  subscribeToReviewEvents(
+    spaceId: string,
+    onEvent: (event: ReviewEvent) => void,
+    onReconnect?: () => void
+  ): () => void {
+    const controller = new AbortController()
+    let retryDelay = 1000
+
+    const connect = async (isReconnect: boolean) => {
+      try {
+        const token = this.getAuthToken()
+        const response = await fetch(`${this.baseURL}/reviews/${spaceId}/events`, {
+          headers: {
+            Accept: 'text/event-stream',
+            ...(token && { Authorization: `Bearer ${token}` }),
+          },
+          signal: controller.signal,
+        })
+        if (response.status === 401 || response.status === 403 || response.status === 404) {
+          return // Not recoverable by retrying
+        }
+        if (!response.ok || !response.body) {
+          throw new Error(`HTTP ${response.status}`)
+        }
+        retryDelay = 1000
+        if (isReconnect) onReconnect?.()
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ''
+        while (true) {
+          const { value, done } = await reader.read()
+          if (done) break
+          buffer += value
+          let boundary
+          while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary)
+            buffer = buffer.slice(boundary + 2)
+            let type = ''
+            const data: string[] = []
+            for (const line of block.split('\n')) {
+              if (line.startsWith('event:')) type = line.slice(6).trim()
+              else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''))
+            }
+            if (type && data.length) {
+              onEvent({ type: type as ReviewEventType, review: JSON.parse(data.join('\n')) })
+            }
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return
+        console.warn('Review feed disconnected:', error)
+      }
+      if (controller.signal.aborted) return
+      // Server closed the stream (timeout, slow consumer, restart) or it failed; try again
+      setTimeout(() => connect(true), retryDelay)
+      retryDelay = Math.min(retryDelay * 2, 30000)
+    }
+
+    connect(false)
+    return () => controller.abort()
+  }
+
   // Embed endpoints
   async getEmbedReviews(spaceId: string) {
     return this.request<Array<{
@@ -262,6 +420,11 @@ export class ApiClient {
       updatedAt: string
     }>>(`/embed/${spaceId}`)
   }
+
+  // Server-rendered widget HTML, for an <iframe> on the customer's site
+  getEmbedWidgetUrl(spaceId: string, layout: string = 'grid'): string {
+    return `${this.baseURL}/embed/${encodeURIComponent(spaceId)}/widget?layout=${encodeURIComponent(layout)}`
+  }
 }
 
 export const apiClient = new ApiClient()
\ No newline at end of file